@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.bookedBy;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.ownedBy;
+
+/**
+ * Первая страница каждого запроса бронирований по состоянию — для бронирующего и для владельца.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingRepositoryBenchmark {
+
+    @Param({"ALL", "WAITING", "REJECTED", "CURRENT", "FUTURE", "PAST"})
+    public BookingState state;
+
+    @Param("20")
+    public int pageSize;
+
+    private BookingRepository bookingRepository;
+    private Pageable page;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        bookingRepository = database.getBean(BookingRepository.class);
+        page = OffsetPageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "start", "id"));
+    }
+
+    @Benchmark
+    public List<Booking> bookerBookings(SeededDatabase database) {
+        return bookingRepository.findPage(bookedBy(database.bookerId).and(inState(state, LocalDateTime.now())), page);
+    }
+
+    @Benchmark
+    public List<Booking> ownerBookings(SeededDatabase database) {
+        return bookingRepository.findPage(ownedBy(database.ownerId).and(inState(state, LocalDateTime.now())), page);
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import shareit.booking.BookingClient;
+import shareit.client.HttpClientConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает обработку ответа сервера в шлюзе на настоящем клиенте шлюза: BookingClient с пулом соединений
+ * из HttpClientConfig ходит в заглушку сервера на localhost, которая отдаёт заранее собранный список бронирований.
+ * Прежнее поведение воспроизводится тем же RestTemplate и пулом, но с разбором ответа в Object и повторной
+ * сериализацией, как это делал MVC. Аллокации на запрос видны при запуске с профилировщиком: -prof gc.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GatewayPassThroughBenchmark {
+
+    private static final String BOOKINGS_PATH = "/bookings/owner";
+
+    @Param({"10", "100", "1000"})
+    public int bookings;
+
+    private ObjectMapper objectMapper;
+    private HttpServer stubServer;
+    private CloseableHttpClient httpClient;
+    private BookingClient bookingClient;
+    private RestTemplate objectRestTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        byte[] serverResponse = objectMapper.writeValueAsBytes(serverBookings());
+
+        stubServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        stubServer.createContext(BOOKINGS_PATH, exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, serverResponse.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(serverResponse);
+            }
+        });
+        stubServer.start();
+        String serverUrl = "http://localhost:" + stubServer.getAddress().getPort();
+
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        PoolingHttpClientConnectionManager connectionManager = httpClientConfig.shareItServerConnectionManager(16, 16);
+        httpClient = httpClientConfig.shareItServerHttpClient(connectionManager, Duration.ofSeconds(2),
+                Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofSeconds(60));
+        bookingClient = new BookingClient(serverUrl, new RestTemplateBuilder(), httpClient,
+                new StaticListableBeanFactory().getBeanProvider(WebClient.class));
+        objectRestTemplate = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/bookings"))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        httpClient.close();
+        stubServer.stop(0);
+    }
+
+    /**
+     * Прежнее поведение: RestTemplate читает ответ в дерево LinkedHashMap/ArrayList, MVC сериализует его заново.
+     */
+    @Benchmark
+    public void deserializeAndSerialize() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        ResponseEntity<Object> response = objectRestTemplate.exchange("/owner?state={state}&from={from}&size={size}",
+                HttpMethod.GET, new HttpEntity<>(headers), Object.class, Map.of("state", "ALL", "from", 0, "size", bookings));
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response.getBody());
+    }
+
+    /**
+     * Текущее поведение: BaseClient.get шлюза пересылает тело ответа как byte[], MVC пишет его без разбора.
+     */
+    @Benchmark
+    public void passThrough() throws IOException {
+        ResponseEntity<Object> response = bookingClient.getAllBookingsForOwner(1L, 0, bookings, "ALL", null).block();
+        OutputStream.nullOutputStream().write((byte[]) response.getBody());
+    }
+
+    private List<BookingDto> serverBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        Item item = Item.builder().id(1L).name("item").description("description").available(true).owner(owner).build();
+        List<BookingDto> response = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            response.add(BookingMapper.toBookingDto(Booking.builder()
+                    .id(i)
+                    .item(item)
+                    .booker(booker)
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i + 1))
+                    .status(BookingStatus.APPROVED)
+                    .build()));
+        }
+        return response;
+    }
+}
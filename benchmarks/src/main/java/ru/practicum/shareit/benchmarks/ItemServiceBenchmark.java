@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemServiceBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase database) {
+        itemService = database.getBean(ItemService.class);
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getItemsByUserId(SeededDatabase database) {
+        return database.inTransaction(() ->
+                itemService.getItemsByUserId(database.ownerId, OffsetPageRequest.of(0, pageSize), null));
+    }
+}
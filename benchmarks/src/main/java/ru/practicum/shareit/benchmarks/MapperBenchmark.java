@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    public int bookingsPerItem;
+
+    @Param({"10", "100"})
+    public int responsesPerRequest;
+
+    private Item item;
+    private Booking booking;
+    private List<BookingDto> bookings;
+    private ItemRequest request;
+    private List<Item> responses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        item = Item.builder().id(1L).name("item").description("description").available(true).owner(owner).build();
+
+        List<Booking> itemBookings = new ArrayList<>(bookingsPerItem);
+        for (int i = 0; i < bookingsPerItem; i++) {
+            LocalDateTime start = now.plusDays(i - bookingsPerItem / 2);
+            itemBookings.add(Booking.builder()
+                    .id(i)
+                    .item(item)
+                    .booker(booker)
+                    .start(start)
+                    .end(start.plusHours(12))
+                    .status(BookingStatus.values()[i % BookingStatus.values().length])
+                    .build());
+        }
+        booking = itemBookings.get(0);
+        bookings = itemBookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+
+        request = ItemRequest.builder().id(1L).description("request").requester(booker).creationDate(now).build();
+        responses = new ArrayList<>(responsesPerRequest);
+        for (int i = 0; i < responsesPerRequest; i++) {
+            responses.add(Item.builder()
+                    .id(i)
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public ItemDto toItemDtoWithBookings() {
+        return ItemMapper.toItemDtoWithBookings(item, bookings);
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemRequestDto toItemRequestDto() {
+        return ItemRequestMapper.toItemRequestDto(request, responses);
+    }
+}
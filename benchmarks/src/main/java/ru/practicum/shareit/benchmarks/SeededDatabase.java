@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Контекст сервера поверх H2, заполненный данными заданного размера. Создаётся один раз на прогон бенчмарка.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    @Param("20")
+    public int users;
+
+    @Param("1000")
+    public int items;
+
+    @Param("10")
+    public int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Владелец первой вещи и бронирующий пользователь, на которых выполняются запросы.
+     */
+    public long ownerId;
+    public long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+                        "logging.level.root=WARN")
+                .run();
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Выполняет вызов в транзакции только для чтения, как это делает open-in-view при обработке HTTP-запроса.
+     */
+    public <T> T inTransaction(Supplier<T> call) {
+        return readOnlyTransaction.execute(status -> call.get());
+    }
+
+    private void seed() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> savedUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            savedUsers.add(User.builder().name("user" + i).email("user" + i + "@mail.ru").build());
+        }
+        savedUsers = getBean(UserRepository.class).saveAll(savedUsers);
+
+        List<Item> savedItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            savedItems.add(Item.builder()
+                    .name("item" + i)
+                    .description("description of item " + i)
+                    .available(true)
+                    .owner(savedUsers.get(i % users))
+                    .build());
+        }
+        savedItems = getBean(ItemRepository.class).saveAll(savedItems);
+        getBean(ItemBookingSummaryUpdater.class).onItemsCreated(savedItems);
+
+        List<Booking> bookings = new ArrayList<>(items * bookingsPerItem);
+        for (int i = 0; i < items; i++) {
+            Item item = savedItems.get(i);
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(random.nextInt(60) - 30);
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .ownerId(item.ownerId())
+                        .booker(savedUsers.get((i + 1 + random.nextInt(users - 1)) % users))
+                        .start(start)
+                        .end(start.plusDays(1 + random.nextInt(5)))
+                        .status(STATUSES[random.nextInt(STATUSES.length)])
+                        .build());
+            }
+        }
+        getBean(BookingRepository.class).saveAll(bookings);
+        getBean(ItemBookingSummaryUpdater.class).onBookingsSaved(bookings);
+
+        ownerId = savedUsers.get(0).getId();
+        bookerId = savedUsers.get(1).getId();
+    }
+}
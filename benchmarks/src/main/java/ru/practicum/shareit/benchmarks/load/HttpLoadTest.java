@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест GET /bookings и GET /items: фиксированное число клиентов в течение заданного времени,
+ * на выходе — пропускная способность и перцентили задержки.
+ *
+ * <p>Запуск: mvn -pl benchmarks -am compile exec:exec@load-test -Dload.args="http://localhost:8080 1 200 30"
+ * (адрес, id пользователя, число одновременных клиентов, длительность в секундах).
+ *
+ * <p>Сравнение платформенных и виртуальных потоков шлюза — два прогона на одной машине и одних данных:
+ * <ol>
+ *     <li>GATEWAY_JAVA_VERSION=21 docker compose up --build, заполнить базу, запустить тест;</li>
+ *     <li>GATEWAY_JAVA_VERSION=21 SHAREIT_VIRTUALTHREADS_ENABLED=true docker compose up --build, запустить тест
+ *     с теми же аргументами; в логе шлюза должна быть строка «Запросы обрабатываются на виртуальных потоках».</li>
+ * </ol>
+ * Оба прогона идут на Java 21, чтобы разница не включала смену JVM. Числа зависят от машины, поэтому в репозитории
+ * их нет: к изменению, которое на них опирается, прикладывается вывод обоих прогонов.
+ */
+public class HttpLoadTest {
+
+    private static final List<String> PATHS = List.of("/bookings?state=ALL&from=0&size=20", "/items?from=0&size=20");
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String userId = args.length > 1 ? args[1] : "1";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String path : PATHS) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("X-Sharer-User-Id", userId)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            warmUp(httpClient, request);
+            printResult(path, clients, run(httpClient, request, clients, duration));
+        }
+    }
+
+    private static void warmUp(HttpClient httpClient, HttpRequest request) throws InterruptedException {
+        run(httpClient, request, 8, Duration.ofSeconds(5));
+    }
+
+    private static Result run(HttpClient httpClient, HttpRequest request, int clients, Duration duration)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<long[]> latenciesByClient = new ArrayList<>(clients);
+        List<Integer> counts = new ArrayList<>(clients);
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<LatencyRecorder>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    }
+                    recorder.add(System.nanoTime() - start);
+                }
+                return recorder;
+            }));
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        for (Future<LatencyRecorder> future : futures) {
+            try {
+                LatencyRecorder recorder = future.get();
+                latenciesByClient.add(recorder.latencies);
+                counts.add(recorder.count);
+            } catch (ExecutionException e) {
+                errors.incrementAndGet();
+            }
+        }
+        return Result.of(latenciesByClient, counts, errors.get(), duration);
+    }
+
+    private static void printResult(String path, int clients, Result result) {
+        System.out.printf("GET %s, клиентов: %d%n", path, clients);
+        System.out.printf("  запросов: %d, ошибок: %d, пропускная способность: %.1f req/s%n",
+                result.requests, result.errors, result.throughput);
+        System.out.printf("  задержка, мс: p50 %.2f, p99 %.2f, max %.2f%n",
+                result.p50 / 1e6, result.p99 / 1e6, result.max / 1e6);
+    }
+
+    private static class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int count;
+
+        void add(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    private static class Result {
+        private long requests;
+        private long errors;
+        private double throughput;
+        private long p50;
+        private long p99;
+        private long max;
+
+        static Result of(List<long[]> latenciesByClient, List<Integer> counts, long errors, Duration duration) {
+            int total = counts.stream().mapToInt(Integer::intValue).sum();
+            long[] all = new long[total];
+            int position = 0;
+            for (int i = 0; i < latenciesByClient.size(); i++) {
+                System.arraycopy(latenciesByClient.get(i), 0, all, position, counts.get(i));
+                position += counts.get(i);
+            }
+            Arrays.sort(all);
+
+            Result result = new Result();
+            result.requests = total;
+            result.errors = errors;
+            result.throughput = total / (double) duration.toSeconds();
+            if (total > 0) {
+                result.p50 = all[(int) Math.min(total - 1, Math.ceil(total * 0.50) - 1)];
+                result.p99 = all[(int) Math.min(total - 1, Math.ceil(total * 0.99) - 1)];
+                result.max = all[total - 1];
+            }
+            return result;
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package shareit.booking;
 
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import shareit.client.BaseClient;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -16,42 +23,56 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient shareItServerHttpClient, ObjectProvider<WebClient> webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                reactiveClient(webClient, serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createBooking(long userId, BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, String approved) {
+    public Mono<ResponseEntity<Object>> createBookings(long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(long userId, long bookingId, String approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsForUser(long userId, Integer from, Integer size, String state) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsForUser(long userId, Integer from, Integer size, String state, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("?state={state}&from={from}&size={size}", parameters, after), userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsForOwner(long userId, Integer from, Integer size, String state) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsForOwner(long userId, Integer from, Integer size, String state, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", parameters, after), userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsForUser(long userId) {
+        return stream("/export", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(long userId) {
+        return stream("/owner/export", userId);
     }
 
-    public ResponseEntity<Object> getInfoForBooking(long userId, long bookingId) {
+    public Mono<ResponseEntity<Object>> getInfoForBooking(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 
@@ -13,12 +13,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import shareit.exception.IncorrectDataException;
+import shareit.validator.BatchValidator;
 import shareit.validator.BookingValidator;
 import shareit.validator.PageableValidator;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.util.List;
 
 import static shareit.constants.Headers.USER_ID;
 
@@ -31,19 +35,28 @@ public class BookingController {
     private final BookingClient bookingClient;
     private final PageableValidator pageableValidator;
     private final BookingValidator bookingValidator;
+    private final BatchValidator batchValidator;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestBody BookingDto bookingDto,
-                                                @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestBody BookingDto bookingDto,
+                                                     @RequestHeader(USER_ID) @Positive long userId) {
         bookingValidator.validateBookingData(bookingDto);
         log.info("Gateway: Создание бронирования : {}", bookingDto.getId());
         return bookingClient.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                      @RequestHeader(USER_ID) @Positive long userId) {
+        batchValidator.validateBatch(bookingDtos);
+        log.info("Gateway: Пакетное создание бронирований: {}", bookingDtos.size());
+        return bookingClient.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@PathVariable @Positive Long bookingId,
-                                                 @RequestParam @NotNull String approved,
-                                                 @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> approveBooking(@PathVariable @Positive Long bookingId,
+                                                      @RequestParam @NotNull String approved,
+                                                      @RequestHeader(USER_ID) @Positive long userId) {
         if (!approved.equals("true") && !approved.equals("false")) {
             throw new IncorrectDataException("Статус подтверждения может быть только TRUE или FALSE");
         }
@@ -52,30 +65,44 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsForUser(@RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(defaultValue = "0") Integer from,
-                                                        @RequestParam(defaultValue = "10") Integer size,
-                                                        @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getAllBookingsForUser(@RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(defaultValue = "0") Integer from,
+                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestHeader(USER_ID) @Positive long userId) {
         pageableValidator.checkingPageableParams(from, size);
         bookingValidator.validateBookingState(state);
         log.info("Gateway: Получение информации о бронированиях пользователя");
-        return bookingClient.getAllBookingsForUser(userId, from, size, state);
+        return bookingClient.getAllBookingsForUser(userId, from, size, state, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsForOwner(@RequestParam(defaultValue = "ALL") String state,
-                                                         @RequestParam(defaultValue = "0") Integer from,
-                                                         @RequestParam(defaultValue = "10") Integer size,
-                                                         @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getAllBookingsForOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                              @RequestParam(defaultValue = "0") Integer from,
+                                                              @RequestParam(defaultValue = "10") Integer size,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestHeader(USER_ID) @Positive long userId) {
         pageableValidator.checkingPageableParams(from, size);
         bookingValidator.validateBookingState(state);
         log.info("Gateway: Получение информации о забронированных вещах владельца");
-        return bookingClient.getAllBookingsForOwner(userId, from, size, state);
+        return bookingClient.getAllBookingsForOwner(userId, from, size, state, after);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForUser(@RequestHeader(USER_ID) @Positive long userId) {
+        log.info("Gateway: Выгрузка всех бронирований пользователя");
+        return bookingClient.exportBookingsForUser(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(@RequestHeader(USER_ID) @Positive long userId) {
+        log.info("Gateway: Выгрузка всех бронирований вещей владельца");
+        return bookingClient.exportBookingsForOwner(userId);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getInfoForBooking(@PathVariable Long bookingId,
-                                                    @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getInfoForBooking(@PathVariable Long bookingId,
+                                                         @RequestHeader(USER_ID) @Positive long userId) {
         log.info("Получение информации о бронировании: {}", bookingId);
         return bookingClient.getInfoForBooking(userId, bookingId);
     }
@@ -1,94 +1,196 @@
 package shareit.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
-
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class BaseClient {
-    protected final RestTemplate rest;
 
-    public BaseClient(RestTemplate rest) {
+    /**
+     * Заголовки, которые относятся к одному соединению и не должны пересылаться клиенту шлюза.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+
+    protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient webClient;
+
+    /**
+     * GET-запросы к серверу, которые сейчас выполняются, по ключу из пользователя, пути и параметров.
+     */
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
+
+    /**
+     * @param webClient неблокирующий клиент сервера; если null, запросы выполняются через RestTemplate
+     */
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
         this.rest = rest;
+        this.webClient = webClient;
+    }
+
+    /**
+     * Возвращает общий WebClient с базовым адресом клиента. Пул соединений при этом остаётся общим для всех клиентов.
+     */
+    @Nullable
+    protected static WebClient reactiveClient(ObjectProvider<WebClient> webClient, String baseUrl) {
+        WebClient sharedClient = webClient.getIfAvailable();
+        if (sharedClient == null) {
+            return null;
+        }
+        return sharedClient.mutate()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    /**
+     * Одинаковые одновременные GET-запросы (тот же путь, параметры, X-Sharer-User-Id и If-None-Match) объединяются
+     * в один запрос к серверу, ответ которого получают все ожидающие. Запись удаляется, как только запрос завершён.
+     * If-None-Match клиента пересылается серверу, а его ответ 304 с ETag возвращается клиенту без изменений.
+     */
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        String ifNoneMatch = currentRequestHeader(HttpHeaders.IF_NONE_MATCH);
+        String key = userId + " " + path + " " + (parameters != null ? new TreeMap<>(parameters) : "") + " " + ifNoneMatch;
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> inFlight = inFlightGets.computeIfAbsent(key,
+                    k -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatch).cache());
+            return inFlight.doFinally(signal -> inFlightGets.remove(key, inFlight));
+        });
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    /**
+     * Выгрузка пересылается клиенту по мере чтения ответа сервера, тело не собирается в памяти шлюза.
+     * Статус и заголовки сервера известны до начала записи, поэтому его ошибки доходят до клиента как есть.
+     * Поток всегда читается через RestTemplate, в том числе когда остальные запросы идут через WebClient.
+     */
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) {
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId, null));
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+            ClientHttpResponse response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(withoutHopByHopHeaders(response.getHeaders()))
+                    .body(outputStream -> {
+                        try (response) {
+                            StreamUtils.copy(response.getBody(), outputStream);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Добавляет к пути курсор after, если клиент его передал. Сервер отдаёт следующий курсор в заголовке X-Next-Cursor.
+     */
+    protected static String withCursor(String path, Map<String, Object> parameters, @Nullable String after) {
+        if (after == null) {
+            return path;
+        }
+        parameters.put("after", after);
+        return path + "&after={after}";
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch) {
+        if (webClient != null) {
+            return sendReactiveRequest(method, path, userId, parameters, body, ifNoneMatch);
+        }
+        return Mono.fromCallable(() -> sendBlockingRequest(method, path, userId, parameters, body, ifNoneMatch));
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> ResponseEntity<Object> sendBlockingRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId, ifNoneMatch));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
@@ -96,27 +198,57 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> Mono<ResponseEntity<Object>> sendReactiveRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String ifNoneMatch) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId, ifNoneMatch)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Заголовок входящего запроса к шлюзу. Читается в потоке контроллера, до подписки на ответ сервера.
+     */
+    @Nullable
+    private static String currentRequestHeader(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(name);
         }
+        return null;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    private static HttpHeaders withoutHopByHopHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 
-        return responseBuilder.build();
+    /**
+     * Тело ответа сервера пересылается клиенту как есть, без разбора JSON; заголовки — без hop-by-hop.
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(withoutHopByHopHeaders(response.getHeaders()))
+                .body(response.getBody());
     }
-}
\ No newline at end of file
+}
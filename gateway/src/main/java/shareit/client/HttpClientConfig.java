@@ -0,0 +1,84 @@
+package shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Общий пул соединений шлюза с сервером для блокирующего режима: все RestTemplate клиентов работают через один HttpClient.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(
+            @Value("${shareit.proxy.max-connections}") int maxConnections,
+            @Value("${shareit.proxy.max-connections-per-route}") int maxConnectionsPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager shareItServerConnectionManager,
+                                                       @Value("${shareit.proxy.connect-timeout}") Duration connectTimeout,
+                                                       @Value("${shareit.proxy.read-timeout}") Duration readTimeout,
+                                                       @Value("${shareit.proxy.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+                                                       @Value("${shareit.proxy.max-idle-time}") Duration maxIdleTime,
+                                                       @Value("${shareit.proxy.keep-alive}") Duration keepAlive) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) pendingAcquireTimeout.toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(shareItServerConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public MeterBinder shareItServerConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItServerConnectionManager) {
+        return registry -> {
+            poolGauge("leased", shareItServerConnectionManager, PoolStats::getLeased).register(registry);
+            poolGauge("pending", shareItServerConnectionManager, PoolStats::getPending).register(registry);
+            poolGauge("available", shareItServerConnectionManager, PoolStats::getAvailable).register(registry);
+            poolGauge("max", shareItServerConnectionManager, PoolStats::getMax).register(registry);
+        };
+    }
+
+    /**
+     * Если сервер не прислал заголовок Keep-Alive, соединение держится в пуле заданное время, а не бесконечно.
+     */
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAlive.toMillis();
+        };
+    }
+
+    private static Gauge.Builder<PoolingHttpClientConnectionManager> poolGauge(String name,
+                                                                              PoolingHttpClientConnectionManager connectionManager,
+                                                                              ToIntFunction<PoolStats> value) {
+        return Gauge.builder("shareit.proxy.pool." + name, connectionManager,
+                        manager -> value.applyAsInt(manager.getTotalStats()))
+                .description("Соединения пула шлюза с сервером: " + name);
+    }
+}
@@ -0,0 +1,50 @@
+package shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Неблокирующий режим шлюза: все клиенты сервера используют один WebClient поверх общего пула соединений Netty.
+ * Включается свойством shareit.proxy.mode=reactive.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.proxy.mode", havingValue = "reactive")
+public class ReactiveProxyConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit.proxy.max-connections}") int maxConnections,
+            @Value("${shareit.proxy.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+            @Value("${shareit.proxy.max-idle-time}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Таймауты те же, что у блокирующего клиента: без них зависший сервер держал бы соединение пула бесконечно.
+     */
+    @Bean
+    public WebClient shareItServerWebClient(WebClient.Builder builder, ConnectionProvider shareItServerConnectionProvider,
+                                            @Value("${shareit.proxy.connect-timeout}") Duration connectTimeout,
+                                            @Value("${shareit.proxy.read-timeout}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Запросы Tomcat и асинхронные задачи выполняются на виртуальных потоках: поток шлюза почти всё время ждёт ответа
+ * сервера, и виртуальный поток при этом не занимает поток ОС. На сервере режима нет: его запросы ждут соединение
+ * из небольшого пула JDBC, и виртуальные потоки упираются в тот же пул.
+ *
+ * <p>Включается свойством shareit.virtual-threads.enabled=true и требует запуска на Java 21+; сборка при этом
+ * остаётся на Java 11, поэтому исполнитель создаётся через reflection. Образ шлюза по умолчанию собирается
+ * на amazoncorretto:11, где режим не включится; в docker-compose он включается так:
+ * GATEWAY_JAVA_VERSION=21 SHAREIT_VIRTUALTHREADS_ENABLED=true docker compose up --build.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            log.info("Запросы обрабатываются на виртуальных потоках");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Виртуальные потоки доступны только на Java 21+, текущая версия: "
+                    + Runtime.version(), e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
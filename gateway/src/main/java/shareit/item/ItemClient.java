@@ -1,14 +1,23 @@
 package shareit.item;
 
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -16,48 +25,81 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final ItemSearchCache itemSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient shareItServerHttpClient, ObjectProvider<WebClient> webClient,
+                      ItemSearchCache itemSearchCache, ApplicationEventPublisher eventPublisher) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                reactiveClient(webClient, serverUrl + API_PREFIX)
         );
+        this.itemSearchCache = itemSearchCache;
+        this.eventPublisher = eventPublisher;
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .doOnNext(this::publishItemsChanged);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> createItems(long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos)
+                .doOnNext(this::publishItemsChanged);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto)
+                .doOnNext(this::publishItemsChanged);
     }
 
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId) {
+        return get("/" + itemId, userId);
+    }
 
-    public ResponseEntity<Object> getUserItems(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
-                "size", size
+                "to", to
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsBySearching(long userId, Integer from, Integer size, String text) {
+
+    public Mono<ResponseEntity<Object>> getUserItems(long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        return get(withCursor("?from={from}&size={size}", parameters, after), userId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportUserItems(long userId) {
+        return stream("/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getItemsBySearching(long userId, Integer from, Integer size, String text) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return itemSearchCache.getOrLoad(text, from, size,
+                () -> get("/search?text={text}&from={from}&size={size}", userId, parameters));
     }
 
-    public ResponseEntity<Object> createCommentToItem(long userId, long itemId, CommentDto comment) {
+    public Mono<ResponseEntity<Object>> createCommentToItem(long userId, long itemId, CommentDto comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 
+    private void publishItemsChanged(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            eventPublisher.publishEvent(new ItemsChangedEvent(this));
+        }
+    }
 }
@@ -2,6 +2,7 @@ package shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,10 +14,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import shareit.validator.BatchValidator;
 import shareit.validator.ItemValidator;
 import shareit.validator.PageableValidator;
 
 import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static shareit.constants.Headers.USER_ID;
 
@@ -29,19 +35,28 @@ public class ItemController {
 
     private final PageableValidator pageableValidator;
     private final ItemValidator itemValidator;
+    private final BatchValidator batchValidator;
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody ItemDto itemDto, @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestBody ItemDto itemDto, @RequestHeader(USER_ID) @Positive long userId) {
         itemValidator.validateItemData(itemDto);
         log.debug("Gateway: Создание элемента {}", itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createItems(@RequestBody List<ItemDto> itemDtos,
+                                                   @RequestHeader(USER_ID) @Positive long userId) {
+        batchValidator.validateBatch(itemDtos);
+        log.debug("Gateway: Пакетное создание {} вещей пользователя с id {}", itemDtos.size(), userId);
+        return itemClient.createItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable @Positive long itemId,
-                                             @RequestBody ItemDto itemDto,
-                                             @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable @Positive long itemId,
+                                                  @RequestBody ItemDto itemDto,
+                                                  @RequestHeader(USER_ID) @Positive long userId) {
         itemValidator.validateItemDataUpdate(itemDto);
         log.debug("Gateway: Обновление элемента с id {}", itemId);
         itemDto.setId(itemId);
@@ -49,35 +64,52 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable @Positive long itemId,
-                                              @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable @Positive long itemId,
+                                                   @RequestHeader(USER_ID) @Positive long userId) {
         log.debug("Gateway: Получение элемента с id : {} ", itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getItemAvailability(@PathVariable @Positive long itemId,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                           @RequestHeader(USER_ID) @Positive long userId) {
+        itemValidator.validateAvailabilityPeriod(from, to);
+        log.debug("Gateway: Получение занятости вещи с id {} с {} по {}", itemId, from, to);
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @GetMapping()
-    public ResponseEntity<Object> getUserItems(@RequestParam(defaultValue = "0") Integer from,
-                                               @RequestParam(defaultValue = "10") Integer size,
-                                               @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getUserItems(@RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestHeader(USER_ID) @Positive long userId) {
         pageableValidator.checkingPageableParams(from, size);
         log.debug("Gateway: Получение всех вещей пользователя с id {}", userId);
-        return itemClient.getUserItems(userId, from, size);
+        return itemClient.getUserItems(userId, from, size, after);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserItems(@RequestHeader(USER_ID) @Positive long userId) {
+        log.debug("Gateway: Выгрузка всех вещей пользователя с id {}", userId);
+        return itemClient.exportUserItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsBySearching(@RequestParam(defaultValue = "0") Integer from,
-                                                      @RequestParam(defaultValue = "10") Integer size,
-                                                      @RequestParam String text,
-                                                      @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getItemsBySearching(@RequestParam(defaultValue = "0") Integer from,
+                                                           @RequestParam(defaultValue = "10") Integer size,
+                                                           @RequestParam String text,
+                                                           @RequestHeader(USER_ID) @Positive long userId) {
         pageableValidator.checkingPageableParams(from, size);
         log.debug("Gateway: Получение вещей при помощи поиска по запросу: {}", text);
         return itemClient.getItemsBySearching(userId, from, size, text);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createCommentToItem(@PathVariable @Positive Long itemId,
-                                                      @RequestBody CommentDto comment,
-                                                      @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> createCommentToItem(@PathVariable @Positive Long itemId,
+                                                           @RequestBody CommentDto comment,
+                                                           @RequestHeader(USER_ID) @Positive long userId) {
         itemValidator.validateCommentData(comment);
         log.debug("Gateway: Создание отзыва на вещь от пользователя с id {}", userId);
         return itemClient.createCommentToItem(userId, itemId, comment);
@@ -0,0 +1,77 @@
+package shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш ответов поиска вещей. Результат поиска не зависит от пользователя, поэтому ключ — только текст запроса
+ * (без учёта регистра, как и на сервере), from и size. Записи сбрасываются целиком при создании или изменении
+ * любой вещи через этот экземпляр шлюза: ItemsChangedEvent — локальное событие контекста и до других экземпляров
+ * не доходит. Изменения через другой экземпляр или на самом сервере (например, удаление вещей вместе
+ * с владельцем) видны только после истечения записи, поэтому TTL (shareit.item-search.cache.ttl) держится коротким.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache {
+
+    private final Cache<String, ResponseEntity<Object>> cache;
+    /**
+     * Номер сброса кэша. Ответ, запрошенный до сброса, в кэш не попадает, даже если пришёл после него.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.item-search.cache.ttl}") Duration ttl,
+                           @Value("${shareit.item-search.cache.max-size}") long maxSize,
+                           MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public Mono<ResponseEntity<Object>> getOrLoad(String text, Integer from, Integer size,
+                                                  Supplier<Mono<ResponseEntity<Object>>> loader) {
+        String key = key(text, from, size);
+        long loadGeneration = generation.get();
+        ResponseEntity<Object> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loader.get()
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful() && loadGeneration == generation.get()) {
+                        cache.put(key, response);
+                        // сброс мог пройти между проверкой и записью
+                        if (loadGeneration != generation.get()) {
+                            cache.invalidate(key);
+                        }
+                    }
+                });
+    }
+
+    @EventListener
+    public void onItemsChanged(ItemsChangedEvent event) {
+        log.debug("Gateway: Сброс кэша поиска после изменения вещей");
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static String key(String text, Integer from, Integer size) {
+        return text.toLowerCase(Locale.ROOT) + "|" + from + "|" + size;
+    }
+}
@@ -0,0 +1,13 @@
+package shareit.item;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Вещь создана или изменена: закэшированные результаты поиска могли устареть.
+ */
+public class ItemsChangedEvent extends ApplicationEvent {
+
+    public ItemsChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -1,14 +1,19 @@
 package shareit.request;
 
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import shareit.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -16,32 +21,34 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient shareItServerHttpClient, ObjectProvider<WebClient> webClient) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerHttpClient))
+                        .build(),
+                reactiveClient(webClient, serverUrl + API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createRequest(long userId, ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getAllUserItemsWithResponses(long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserItemsWithResponses(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllCreatedRequests(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllCreatedRequests(long userId, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return get(withCursor("/all?from={from}&size={size}", parameters, after), userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import shareit.validator.ItemRequestValidator;
 import shareit.validator.PageableValidator;
 
@@ -31,31 +32,32 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addNewRequest(@RequestBody ItemRequestDto requestDto,
-                                                @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> addNewRequest(@RequestBody ItemRequestDto requestDto,
+                                                     @RequestHeader(USER_ID) @Positive long userId) {
         itemRequestValidator.validateItemRequestData(requestDto);
         log.debug("Gateway: Создание запроса на вещь: {}", requestDto);
         return requestClient.createRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserItemsWithResponses(@RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getAllUserItemsWithResponses(@RequestHeader(USER_ID) @Positive long userId) {
         log.debug("Gateway: Получение списка запросов пользователя!");
         return requestClient.getAllUserItemsWithResponses(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllCreatedRequests(@RequestParam(defaultValue = "0") Integer from,
-                                                        @RequestParam(defaultValue = "10") Integer size,
-                                                        @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getAllCreatedRequests(@RequestParam(defaultValue = "0") Integer from,
+                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestHeader(USER_ID) @Positive long userId) {
         pageableValidator.checkingPageableParams(from, size);
         log.debug("Gateway: Получение списка всех созданных запросов!");
-        return requestClient.getAllCreatedRequests(userId, from, size);
+        return requestClient.getAllCreatedRequests(userId, from, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable @Positive Long requestId,
-                                                 @RequestHeader(USER_ID) @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@PathVariable @Positive Long requestId,
+                                                      @RequestHeader(USER_ID) @Positive long userId) {
         log.debug("Gateway: Получение запроса на вещь с Id: {}", requestId);
         return requestClient.getRequestById(userId, requestId);
     }
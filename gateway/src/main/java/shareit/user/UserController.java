@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -26,32 +27,32 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping()
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.debug("Gateway: Получение списка всех пользователей");
         return userClient.getAllUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable @Positive long userId) {
         log.debug("Gateway: Получение пользователя с id: {}", userId);
         return userClient.getUserById(userId);
     }
 
     @PostMapping()
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Valid UserDto userDto) {
         log.debug("Gateway: Создание пользователя: {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive long userId, @Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable @Positive long userId, @Valid @RequestBody UserDto userDto) {
         log.debug("Gateway: Обновление пользователя с ID: {}", userId);
         userDto.setId(userId);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable @Positive long userId) {
         log.debug("Gateway: Удаление пользователя с ID: {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,26 @@
+package shareit.validator;
+
+import org.springframework.stereotype.Component;
+import shareit.exception.EmptyFieldException;
+import shareit.exception.IncorrectDataException;
+
+import java.util.List;
+
+/**
+ * Строки пакета проверяет сервер и возвращает результат по каждой; шлюз ограничивает только размер пакета,
+ * чтобы один запрос не держал в памяти сервера слишком много сущностей.
+ */
+@Component
+public class BatchValidator {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    public void validateBatch(List<?> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new EmptyFieldException("Batch can't be empty!");
+        }
+        if (rows.size() > MAX_BATCH_SIZE) {
+            throw new IncorrectDataException("Batch can't contain more than " + MAX_BATCH_SIZE + " rows!");
+        }
+    }
+}
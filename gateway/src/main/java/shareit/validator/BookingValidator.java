@@ -14,8 +14,7 @@ import java.time.LocalDateTime;
 public class BookingValidator {
 
     public void validateBookingState(String state) {
-        String result = BookingState.checkState(state);
-        if (result.isEmpty()) {
+        if (BookingState.from(state) == null) {
             throw new UnsupportedStatusException(state);
         }
     }
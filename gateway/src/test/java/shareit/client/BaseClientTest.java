@@ -0,0 +1,114 @@
+package shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String URL = "http://server/items/1";
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private MockRestServiceServer server;
+    private TestClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new TestClient(rest);
+    }
+
+    @Test
+    void get_whenSameRequestIsInFlight_thenSendOneRequestToServer() throws Exception {
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch releaseResponse = new CountDownLatch(1);
+        server.expect(ExpectedCount.once(), requestTo(URL))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(request -> {
+                    requestStarted.countDown();
+                    awaitQuietly(releaseResponse);
+                    return withSuccess(BODY, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+
+        CompletableFuture<ResponseEntity<Object>> first = client.find(URL, 1L)
+                .subscribeOn(Schedulers.boundedElastic())
+                .toFuture();
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<Object>> second = client.find(URL, 1L).toFuture();
+        releaseResponse.countDown();
+
+        assertArrayEquals((byte[]) first.get(5, TimeUnit.SECONDS).getBody(), BODY);
+        assertArrayEquals((byte[]) second.get(5, TimeUnit.SECONDS).getBody(), BODY);
+        server.verify();
+    }
+
+    @Test
+    void get_whenPreviousRequestCompleted_thenSendNewRequest() {
+        server.expect(ExpectedCount.twice(), requestTo(URL))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        client.find(URL, 1L).block();
+        client.find(URL, 1L).block();
+
+        server.verify();
+    }
+
+    @Test
+    void get_whenPreviousRequestFailed_thenSendNewRequest() {
+        server.expect(requestTo(URL))
+                .andRespond(request -> {
+                    throw new IOException("Сервер недоступен");
+                });
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        assertThrows(ResourceAccessException.class, () -> client.find(URL, 1L).block());
+        ResponseEntity<Object> response = client.find(URL, 1L).block();
+
+        assertArrayEquals((byte[]) response.getBody(), BODY);
+        server.verify();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class TestClient extends BaseClient {
+
+        TestClient(RestTemplate rest) {
+            super(rest, null);
+        }
+
+        Mono<ResponseEntity<Object>> find(String path, long userId) {
+            return get(path, userId);
+        }
+    }
+}
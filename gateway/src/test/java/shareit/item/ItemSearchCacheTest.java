@@ -0,0 +1,77 @@
+package shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchCache = new ItemSearchCache(Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_whenSameSearchRepeated_thenLoadOnce() {
+        search("Дрель", countingLoader(HttpStatus.OK));
+        ResponseEntity<Object> response = search("дрель", countingLoader(HttpStatus.OK));
+
+        assertEquals(loads.get(), 1);
+        assertEquals(response.getStatusCode(), HttpStatus.OK);
+    }
+
+    @Test
+    void getOrLoad_whenItemsChanged_thenLoadAgain() {
+        search("дрель", countingLoader(HttpStatus.OK));
+
+        itemSearchCache.onItemsChanged(new ItemsChangedEvent(this));
+        search("дрель", countingLoader(HttpStatus.OK));
+
+        assertEquals(loads.get(), 2);
+    }
+
+    @Test
+    void getOrLoad_whenItemsChangedWhileLoading_thenDoNotCacheStaleResponse() {
+        search("дрель", () -> Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            itemSearchCache.onItemsChanged(new ItemsChangedEvent(this));
+            return ResponseEntity.ok((Object) "[]");
+        }));
+
+        search("дрель", countingLoader(HttpStatus.OK));
+
+        assertEquals(loads.get(), 2);
+    }
+
+    @Test
+    void getOrLoad_whenServerRespondedWithError_thenDoNotCacheIt() {
+        search("дрель", countingLoader(HttpStatus.INTERNAL_SERVER_ERROR));
+        search("дрель", countingLoader(HttpStatus.OK));
+
+        assertEquals(loads.get(), 2);
+    }
+
+    private ResponseEntity<Object> search(String text, Supplier<Mono<ResponseEntity<Object>>> loader) {
+        return itemSearchCache.getOrLoad(text, 0, 10, loader).block();
+    }
+
+    private Supplier<Mono<ResponseEntity<Object>>> countingLoader(HttpStatus status) {
+        return () -> Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return ResponseEntity.status(status).body((Object) "[]");
+        });
+    }
+}
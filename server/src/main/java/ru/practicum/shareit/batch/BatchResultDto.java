@@ -0,0 +1,27 @@
+package ru.practicum.shareit.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ответ на пакетное создание: по результату на каждую строку запроса в её исходном порядке.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+
+    private Integer created;
+    private Integer failed;
+    private List<BatchRowResultDto> results;
+
+    public static BatchResultDto of(List<BatchRowResultDto> results) {
+        int created = (int) results.stream().filter(result -> result.getError() == null).count();
+        return new BatchResultDto(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат одной строки пакета: id созданной сущности или причина, по которой строка не сохранена.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRowResultDto {
+
+    private Integer index;
+    private Long id;
+    private String error;
+
+    public static BatchRowResultDto created(int index, long id) {
+        return new BatchRowResultDto(index, id, null);
+    }
+
+    public static BatchRowResultDto failed(int index, String error) {
+        return new BatchRowResultDto(index, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+public interface BookingPeriodView {
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
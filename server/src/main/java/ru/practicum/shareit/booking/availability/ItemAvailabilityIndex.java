@@ -0,0 +1,165 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Календарь занятости вещей в памяти: подтверждённые незакончившиеся бронирования каждой вещи в отсортированных
+ * массивах. Строится при старте приложения, обновляется при создании, подтверждении и удалении бронирований
+ * и по расписанию теряет закончившиеся, поэтому запрос свободных периодов не обращается к базе данных.
+ * Пересечения при создании бронирований проверяются по базе, календарь служит только для чтения занятости.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex implements SmartInitializingSingleton {
+
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, ItemBookingCalendar> calendars = new HashMap<>();
+
+    /**
+     * Календарь строится после создания всех бинов, до запуска веб-сервера: пока он строится, запросы не приходят,
+     * и изменения из onBookingSaved не теряются при замене построенной копией.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        Map<Long, ItemBookingCalendar> newCalendars = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingPeriodView> periods = bookingRepository.streamAllPeriodsByStatusAndEndAfter(
+                    BookingStatus.APPROVED, LocalDateTime.now())) {
+                periods.forEach(period -> newCalendars.computeIfAbsent(period.getItemId(), id -> new ItemBookingCalendar())
+                        .add(period.getId(), toSeconds(period.getStartDate()), toSeconds(period.getEndDate())));
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            calendars = newCalendars;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Календарь занятости вещей построен: вещей с подтверждёнными бронированиями {}", newCalendars.size());
+    }
+
+    /**
+     * Учитывает новое состояние бронирования: подтверждённое попадает в календарь вещи, остальные из него убираются.
+     */
+    public void onBookingSaved(Booking booking) {
+        Long itemId = booking.itemId();
+        if (itemId == null || booking.getStart() == null || booking.getEnd() == null) {
+            return;
+        }
+        long start = toSeconds(booking.getStart());
+        lock.writeLock().lock();
+        try {
+            ItemBookingCalendar calendar = calendars.get(itemId);
+            if (calendar != null) {
+                calendar.remove(booking.getId(), start);
+            }
+            if (booking.getStatus() == BookingStatus.APPROVED) {
+                calendars.computeIfAbsent(itemId, id -> new ItemBookingCalendar())
+                        .add(booking.getId(), start, toSeconds(booking.getEnd()));
+            } else if (calendar != null && calendar.isEmpty()) {
+                calendars.remove(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Убирает бронирования, удалённые каскадно вместе с пользователем или вещью.
+     */
+    public void onBookingsRemoved(Collection<BookingPeriodView> periods) {
+        lock.writeLock().lock();
+        try {
+            for (BookingPeriodView period : periods) {
+                ItemBookingCalendar calendar = calendars.get(period.getItemId());
+                if (calendar != null) {
+                    calendar.remove(period.getId(), toSeconds(period.getStartDate()));
+                    if (calendar.isEmpty()) {
+                        calendars.remove(period.getItemId());
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${shareit.availability.prune-interval}",
+            fixedDelayString = "${shareit.availability.prune-interval}")
+    public void pruneEnded() {
+        removeEndedBy(LocalDateTime.now());
+    }
+
+    /**
+     * Закончившиеся к now бронирования уже не занимают будущих дат, и календарь не растёт вместе с историей.
+     */
+    public void removeEndedBy(LocalDateTime now) {
+        long time = toSeconds(now);
+        lock.writeLock().lock();
+        try {
+            calendars.values().forEach(calendar -> calendar.removeEndedBy(time));
+            calendars.values().removeIf(ItemBookingCalendar::isEmpty);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Подтверждённые бронирования вещи, пересекающие период [from, to), в порядке начала.
+     * Закончившиеся бронирования в календаре не хранятся, поэтому для прошедших дат период выглядит свободным.
+     */
+    public List<AvailabilityPeriodDto> findBusyPeriods(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityPeriodDto> busy = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            ItemBookingCalendar calendar = calendars.get(itemId);
+            if (calendar != null) {
+                calendar.forEachOverlapping(toSeconds(from), toSeconds(to),
+                        (start, end) -> busy.add(new AvailabilityPeriodDto(toDateTime(start), toDateTime(end))));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return busy;
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.util.Arrays;
+
+/**
+ * Подтверждённые бронирования одной вещи: параллельные массивы id, начала и окончания (секунды эпохи),
+ * отсортированные по началу. maxEnds[i] — наибольшее окончание среди первых i + 1 бронирований; он не убывает,
+ * поэтому первое бронирование, которое может пересекать период, находится двоичным поиском,
+ * даже если сами бронирования пересекаются.
+ */
+class ItemBookingCalendar {
+
+    private long[] bookingIds = new long[4];
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private long[] maxEnds = new long[4];
+    private int size;
+
+    void add(long bookingId, long start, long end) {
+        if (size == starts.length) {
+            int capacity = size * 2;
+            bookingIds = Arrays.copyOf(bookingIds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+        }
+        int position = firstGreater(starts, start);
+        System.arraycopy(bookingIds, position, bookingIds, position + 1, size - position);
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        bookingIds[position] = bookingId;
+        starts[position] = start;
+        ends[position] = end;
+        size++;
+        updateMaxEnds(position);
+    }
+
+    void remove(long bookingId, long start) {
+        for (int position = firstGreaterOrEqual(starts, start); position < size && starts[position] == start; position++) {
+            if (bookingIds[position] == bookingId) {
+                System.arraycopy(bookingIds, position + 1, bookingIds, position, size - position - 1);
+                System.arraycopy(starts, position + 1, starts, position, size - position - 1);
+                System.arraycopy(ends, position + 1, ends, position, size - position - 1);
+                size--;
+                updateMaxEnds(position);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Убирает бронирования, закончившиеся не позже time, одним проходом с уплотнением массивов.
+     */
+    void removeEndedBy(long time) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (ends[i] > time) {
+                bookingIds[kept] = bookingIds[i];
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                kept++;
+            }
+        }
+        if (kept < size) {
+            size = kept;
+            updateMaxEnds(0);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Передаёт бронирования, пересекающие период [from, to), в порядке начала.
+     */
+    void forEachOverlapping(long from, long to, PeriodConsumer consumer) {
+        int last = firstGreaterOrEqual(starts, to);
+        for (int i = firstGreater(maxEnds, from); i < last; i++) {
+            if (ends[i] > from) {
+                consumer.accept(starts[i], ends[i]);
+            }
+        }
+    }
+
+    private void updateMaxEnds(int from) {
+        for (int i = from; i < size; i++) {
+            maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+        }
+    }
+
+    private int firstGreaterOrEqual(long[] values, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstGreater(long[] values, long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    interface PeriodConsumer {
+
+        void accept(long start, long end);
+    }
+}
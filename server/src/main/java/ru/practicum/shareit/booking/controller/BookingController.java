@@ -2,8 +2,9 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,12 +14,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.validator.PageableValidator;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
+import static ru.practicum.shareit.constants.Headers.NEXT_CURSOR;
 import static ru.practicum.shareit.constants.Headers.USER_ID;
 
 @RestController
@@ -36,6 +44,12 @@ public class BookingController {
         return bookingService.addBooking(bookingDto, userId);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createBookings(@RequestBody List<BookingDto> bookingDtos, @RequestHeader(USER_ID) long userId) {
+        log.info("Пакетное создание бронирований: {}", bookingDtos.size());
+        return bookingService.addBookings(bookingDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId, @RequestParam String approved, @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Назначение статуса для бронирования: {}, статус: {}", bookingId, approved);
@@ -46,27 +60,60 @@ public class BookingController {
     public List<BookingDto> getAllBookingsForUser(@RequestParam(defaultValue = "ALL") String state,
                                                   @RequestParam(defaultValue = "0") Integer from,
                                                   @RequestParam(defaultValue = "10") Integer size,
-                                                  @RequestHeader(USER_ID) Long userId) {
+                                                  @RequestParam(required = false) String after,
+                                                  @RequestHeader(USER_ID) Long userId,
+                                                  HttpServletResponse response) {
         pageableValidator.checkingPageableParams(from, size);
         log.info("Получение информации о бронированиях пользователя");
-        Pageable page = PageRequest.of(from / size, size);
-        return bookingService.getAllBookingsByUserId(userId, state, page);
+        PageCursor cursor = PageCursor.decode(after);
+        Pageable page = OffsetPageRequest.of(cursor == null ? from : 0, size);
+        List<BookingDto> bookings = bookingService.getAllBookingsByUserId(userId, state, page, cursor);
+        setNextCursor(bookings, size, response);
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getAllBookingsForOwner(@RequestParam(defaultValue = "ALL") String state,
                                                    @RequestParam(defaultValue = "0") Integer from,
                                                    @RequestParam(defaultValue = "10") Integer size,
-                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
+                                                   @RequestParam(required = false) String after,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId,
+                                                   HttpServletResponse response) {
         pageableValidator.checkingPageableParams(from, size);
         log.info("Получение информации о забронированных вещах владельца");
-        Pageable page = PageRequest.of(from / size, size);
-        return bookingService.getAllBookingsByOwnerId(userId, state, page);
+        PageCursor cursor = PageCursor.decode(after);
+        Pageable page = OffsetPageRequest.of(cursor == null ? from : 0, size);
+        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(userId, state, page, cursor);
+        setNextCursor(bookings, size, response);
+        return bookings;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForUser(@RequestHeader(USER_ID) long userId) {
+        log.info("Выгрузка всех бронирований пользователя");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportBookingsByUserId(userId));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForOwner(@RequestHeader(USER_ID) long userId) {
+        log.info("Выгрузка всех бронирований вещей владельца");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportBookingsByOwnerId(userId));
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto getInfoForBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public BookingDto getInfoForBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") long userId, WebRequest request) {
         log.info("Получение информации о бронировании: {}", bookingId);
-        return bookingService.getBookingInfo(bookingId, userId);
+        return bookingService.getBookingInfo(bookingId, userId, request::checkNotModified);
+    }
+
+    private void setNextCursor(List<BookingDto> bookings, int size, HttpServletResponse response) {
+        if (bookings.size() == size) {
+            BookingDto last = bookings.get(bookings.size() - 1);
+            response.setHeader(NEXT_CURSOR, PageCursor.of(last.getStart(), last.getId()).encode());
+        }
     }
 }
@@ -8,7 +8,6 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
-import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItem;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDto;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUser;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUserDto;
@@ -43,26 +42,21 @@ public class BookingMapper {
                 .status(bookingDto.getStatus())
                 .item(item)
                 .booker(booker)
+                .ownerId(item != null ? item.ownerId() : null)
                 .build();
     }
 
     public static Booking toBookingUpdate(BookingDto bookingDto, Booking booking) {
-        Booking bookingUpdate = Booking.builder()
+        return Booking.builder()
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(bookingDto.getStatus() != null ? bookingDto.getStatus() : booking.getStatus())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .ownerId(booking.getOwnerId())
+                .version(booking.getVersion())
                 .build();
-
-        if (bookingDto.getItem() != null) {
-            Item item = toItem(bookingDto.getItem());
-            bookingUpdate.setItem(item);
-        }
-        if (bookingDto.getBooker() != null) {
-            User booker = toUser(bookingDto.getBooker());
-            bookingUpdate.setBooker(booker);
-        }
-        return bookingUpdate;
     }
 
     public static BookingLiteDto toBookingLiteDto(BookingDto bookingDto) {
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.model;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 public enum BookingState {
 
@@ -11,11 +12,18 @@ public enum BookingState {
     PAST,
     ALL;
 
-    public static String checkState(String state) {
-        return Arrays.stream(BookingState.values())
-                .map(BookingState::name)
-                .filter(x -> x.equals(state))
-                .findFirst()
-                .orElse("");
+    private static final Map<String, BookingState> BY_NAME = new HashMap<>();
+
+    static {
+        for (BookingState state : values()) {
+            BY_NAME.put(state.name(), state);
+        }
+    }
+
+    /**
+     * @return состояние с точно таким именем или null, если его нет
+     */
+    public static BookingState from(String state) {
+        return BY_NAME.get(state);
     }
 }
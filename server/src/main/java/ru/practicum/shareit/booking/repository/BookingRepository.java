@@ -1,56 +1,101 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.summary.BookingStatusCountView;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBooker_Id(Long bookerId, Pageable page);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByItem_Owner_Id(Long ownerId);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository {
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllByOwnerId(Long ownerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(Long itemId, List<BookingStatus> statuses, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAscIdAsc(Long itemId, List<BookingStatus> statuses, LocalDateTime now);
+
+    /**
+     * Последнее начавшееся бронирование каждой вещи. При одинаковом начале берётся бронирование с большим id,
+     * как и в findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc, поэтому на вещь приходится одна строка.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.item.id IN :itemIds AND b.status NOT IN :statuses AND b.start < :now " +
+            "AND NOT EXISTS (select lb from Booking lb where lb.item.id = b.item.id AND lb.status NOT IN :statuses " +
+            "AND lb.start < :now AND (lb.start > b.start OR lb.start = b.start AND lb.id > b.id))")
+    List<Booking> findLastBookingsByItemIds(List<Long> itemIds, List<BookingStatus> statuses, LocalDateTime now);
+
+    /**
+     * Ближайшее будущее бронирование каждой вещи. При одинаковом начале берётся бронирование с меньшим id,
+     * как и в findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAscIdAsc.
+     */
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking b where b.item.id IN :itemIds AND b.status NOT IN :statuses AND b.start > :now " +
+            "AND NOT EXISTS (select nb from Booking nb where nb.item.id = b.item.id AND nb.status NOT IN :statuses " +
+            "AND nb.start > :now AND (nb.start < b.start OR nb.start = b.start AND nb.id < b.id))")
+    List<Booking> findNextBookingsByItemIds(List<Long> itemIds, List<BookingStatus> statuses, LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.status as status, count(b) as count from Booking b " +
+            "where b.item.id IN :itemIds group by b.item.id, b.status")
+    List<BookingStatusCountView> countByItemIdsAndStatus(Collection<Long> itemIds);
+
+    /**
+     * Есть ли у вещи другое подтверждённое бронирование, пересекающееся с периодом [start, end).
+     * В Postgres то же правило закреплено ограничением исключения на bookings, которое закрывает гонку между
+     * этой проверкой и сохранением; в H2 остаётся только проверка.
+     */
+    @Query("select case when count(b) > 0 then true else false end from Booking b where b.item.id = :itemId " +
+            "AND b.id <> :bookingId AND b.status = :approved AND b.start < :end AND b.end > :start")
+    boolean existsApprovedOverlapping(Long itemId, Long bookingId, BookingStatus approved, LocalDateTime start, LocalDateTime end);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.status = :status AND b.item.id IS NOT NULL AND b.end > :now")
+    Stream<BookingPeriodView> streamAllPeriodsByStatusAndEndAfter(BookingStatus status, LocalDateTime now);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.item.id IN :itemIds AND b.status = :status AND b.start < :end AND b.end > :start")
+    List<BookingPeriodView> findPeriodsByItemIdsAndStatusOverlapping(Collection<Long> itemIds, BookingStatus status,
+                                                                     LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Бронирования, которые удалятся каскадно вместе с пользователем: его собственные и бронирования его вещей.
+     */
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where (b.booker.id = :userId OR b.ownerId = :userId) AND b.status = :status AND b.item.id IS NOT NULL")
+    List<BookingPeriodView> findAllPeriodsByUserIdAndStatus(Long userId, BookingStatus status);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b from Booking b where b.booker.id = :bookerId order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByBookerId(Long bookerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b from Booking b where b.ownerId = :ownerId order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByOwnerId(Long ownerId);
 
     @Query("select b from Booking b where b.item.id = :itemId AND b.booker.id = :bookerId AND b.end <= :now")
     List<Booking> findAllByUserIdAndItemIdAndEndDateIsPassed(Long bookerId, Long itemId, LocalDateTime now);
 
-    @Query("select b from Booking b where b.item.id IN :itemsIds")
-    List<Booking> findAllByOwnerItems(List<Long> itemsIds, Pageable page);
-
-    @Query("select b from Booking b where b.item.id IN :itemsIds AND b.status = :waiting")
-    List<Booking> findAllByOwnerItemsAndWaitingStatus(List<Long> itemsIds, BookingStatus waiting, Pageable page);
-
-    @Query("select b from Booking b where b.item.id IN :itemsIds AND b.status IN :rejected")
-    List<Booking> findAllByOwnerItemsAndRejectedStatus(List<Long> itemsIds, List<BookingStatus> rejected, Pageable page);
-
-    @Query("select b from Booking b where b.item.id IN :itemsIds AND b.start < :now AND b.end > :now")
-    List<Booking> findAllByOwnerItemsAndCurrentStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
-
-    @Query("select b from Booking b where b.item.id IN :itemsIds AND b.start > :now")
-    List<Booking> findAllByOwnerItemsAndFutureStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
-
-    @Query("select b from Booking b where b.item.id IN :itemsIds AND b.end < :now")
-    List<Booking> findAllByOwnerItemsAndPastStatus(List<Long> itemsIds, LocalDateTime now, Pageable page);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId AND b.status = :waiting")
-    List<Booking> findAllByBookerIdAndWaitingStatus(Long bookerId, BookingStatus waiting, Pageable page);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId AND b.status IN :rejected")
-    List<Booking> findAllByBookerIdAndRejectedStatus(Long bookerId, List<BookingStatus> rejected, Pageable page);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId AND b.start < :now AND b.end > :now ")
-    List<Booking> findAllByBookerIdAndCurrentStatus(Long bookerId, LocalDateTime now, Pageable page);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId AND b.start > :now ")
-    List<Booking> findAllByBookerIdAndFutureStatus(Long bookerId, LocalDateTime now, Pageable page);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId AND b.end < :now")
-    List<Booking> findAllByBookerIdAndPastStatus(Long bookerId, LocalDateTime now, Pageable page);
-
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+/**
+ * Поиск бронирований по условию, собранному из {@link BookingSpecifications}, одним запросом вместе с вещью
+ * и автором бронирования.
+ */
+public interface BookingSearchRepository {
+
+    /**
+     * Страница бронирований без подсчёта общего количества: клиенту оно не нужно, а лишний count дорог.
+     */
+    List<Booking> findPage(Specification<Booking> specification, Pageable page);
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(Specification<Booking> specification, Pageable page) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Predicate predicate = specification.toPredicate(booking, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(page.getSort(), booking, builder));
+
+        EntityGraph<Booking> itemAndBooker = entityManager.createEntityGraph(Booking.class);
+        itemAndBooker.addAttributeNodes("item", "booker");
+        return entityManager.createQuery(query)
+                .setHint(EntityGraphType.FETCH.getKey(), itemAndBooker)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize())
+                .getResultList();
+    }
+}
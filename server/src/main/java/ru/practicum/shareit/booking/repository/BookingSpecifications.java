@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Части запроса списка бронирований: роль пользователя, состояние и курсор. Условие состояния выбирается
+ * по таблице, заполненной один раз, поэтому новое состояние добавляется одной строкой, а не новым запросом.
+ */
+public final class BookingSpecifications {
+
+    private static final List<BookingStatus> REJECTED_STATUSES = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+    private static final Map<BookingState, Function<LocalDateTime, Specification<Booking>>> STATE_PREDICATES =
+            new EnumMap<>(BookingState.class);
+
+    static {
+        STATE_PREDICATES.put(BookingState.ALL, now -> Specification.where(null));
+        STATE_PREDICATES.put(BookingState.WAITING, now -> (booking, query, builder) ->
+                builder.equal(booking.get("status"), BookingStatus.WAITING));
+        STATE_PREDICATES.put(BookingState.REJECTED, now -> (booking, query, builder) ->
+                booking.get("status").in(REJECTED_STATUSES));
+        STATE_PREDICATES.put(BookingState.CURRENT, now -> (booking, query, builder) -> builder.and(
+                builder.lessThan(booking.<LocalDateTime>get("start"), now),
+                builder.greaterThan(booking.<LocalDateTime>get("end"), now)));
+        STATE_PREDICATES.put(BookingState.FUTURE, now -> (booking, query, builder) ->
+                builder.greaterThan(booking.<LocalDateTime>get("start"), now));
+        STATE_PREDICATES.put(BookingState.PAST, now -> (booking, query, builder) ->
+                builder.lessThan(booking.<LocalDateTime>get("end"), now));
+    }
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> bookedBy(long bookerId) {
+        return (booking, query, builder) -> builder.equal(booking.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> ownedBy(long ownerId) {
+        return (booking, query, builder) -> builder.equal(booking.get("ownerId"), ownerId);
+    }
+
+    /**
+     * @param now момент, относительно которого определяются текущие, будущие и прошедшие бронирования
+     */
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        return STATE_PREDICATES.get(state).apply(now);
+    }
+
+    /**
+     * Бронирования строго после курсора в порядке (start, id) по убыванию; без курсора условие не добавляется.
+     * Условие start <= :afterStart вынесено на верхний уровень, чтобы оно ограничивало диапазон индекса
+     * (…, start_date DESC, id DESC), а не проверялось для каждой строки.
+     */
+    public static Specification<Booking> after(PageCursor cursor) {
+        if (cursor == null) {
+            return Specification.where(null);
+        }
+        LocalDateTime afterStart = PageCursor.startOrMax(cursor);
+        long afterId = cursor.getId();
+        return (booking, query, builder) -> builder.and(
+                builder.lessThanOrEqualTo(booking.<LocalDateTime>get("start"), afterStart),
+                builder.or(
+                        builder.lessThan(booking.<LocalDateTime>get("start"), afterStart),
+                        builder.lessThan(booking.<Long>get("id"), afterId)));
+    }
+}
@@ -1,19 +1,41 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface BookingService {
 
     BookingDto addBooking(BookingDto bookingDto, Long bookerId);
 
+    /**
+     * Создаёт бронирования пользователя одним пакетом. Строки с ошибками не сохраняются и не мешают остальным.
+     */
+    BatchResultDto addBookings(List<BookingDto> bookingDtos, Long bookerId);
+
     BookingDto approveBooking(Long bookingId, Long ownerId, String approve);
 
     BookingDto getBookingInfo(Long bookingId, Long userId);
 
-    List<BookingDto> getAllBookingsByUserId(Long userId, String state, Pageable page);
+    /**
+     * Возвращает null, не собирая DTO, если notModified подтвердил ETag, который уже есть у клиента.
+     */
+    BookingDto getBookingInfo(Long bookingId, Long userId, Predicate<String> notModified);
+
+    List<BookingDto> getAllBookingsByUserId(Long userId, String state, Pageable page, PageCursor after);
+
+    List<BookingDto> getAllBookingsByOwnerId(Long ownerId, String state, Pageable page, PageCursor after);
+
+    /**
+     * Все бронирования пользователя в формате NDJSON. Пользователь проверяется сразу, а бронирования читаются,
+     * когда ответ начинает записываться.
+     */
+    StreamingResponseBody exportBookingsByUserId(Long userId);
 
-    List<BookingDto> getAllBookingsByOwnerId(Long ownerId, String state, Pageable page);
+    StreamingResponseBody exportBookingsByOwnerId(Long ownerId);
 }
@@ -1,19 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validator.BookingValidator;
 import ru.practicum.shareit.validator.ItemValidator;
@@ -21,35 +38,155 @@ import ru.practicum.shareit.validator.UserValidator;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.dto.mapper.BookingMapper.toBookingDb;
 import static ru.practicum.shareit.booking.dto.mapper.BookingMapper.toBookingDto;
 import static ru.practicum.shareit.booking.dto.mapper.BookingMapper.toBookingUpdate;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.bookedBy;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.ownedBy;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final int APPROVE_ATTEMPTS = 3;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final UserValidator userValidator;
     private final ItemValidator itemValidator;
     private final BookingValidator bookingValidator;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    private final NdjsonExporter ndjsonExporter;
+    private final PlatformTransactionManager transactionManager;
 
+    /**
+     * Бронирование и сводка бронирований вещи сохраняются в одной транзакции, календарь занятости обновляется после неё.
+     */
     @Override
     public BookingDto addBooking(BookingDto bookingDto, Long bookerId) {
         User booker = userValidator.validateUserIdAndReturnIt(bookerId);
         Item itemFromDb = itemValidator.validateItemIdAndReturnIt(bookingDto.getItemId());
+        validateNewBooking(bookingDto, itemFromDb, bookerId);
 
-        if (itemFromDb.getOwner().getId() == bookerId) {
+        if (bookingRepository.existsApprovedOverlapping(itemFromDb.getId(), 0L, BookingStatus.APPROVED,
+                bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingConflictException("Вещь уже забронирована на эти даты!");
+        }
+
+        bookingDto.setStatus(BookingStatus.WAITING);
+        Booking savedBooking = new TransactionTemplate(transactionManager).execute(status -> {
+            Booking booking = bookingRepository.save(toBookingDb(bookingDto, itemFromDb, booker));
+            itemBookingSummaryUpdater.onBookingSaved(booking);
+            return booking;
+        });
+        itemAvailabilityIndex.onBookingSaved(savedBooking);
+        return toBookingDto(savedBooking);
+    }
+
+    /**
+     * Строки проверяются по тем же правилам, что и одиночное бронирование, но вещи всех строк и их подтверждённые
+     * бронирования на даты пакета читаются двумя запросами, а бронирования сохраняются одним saveAll JDBC-пакетами.
+     * Пересечения, как и в addBooking, проверяются по базе, а не по календарю занятости.
+     */
+    @Override
+    public BatchResultDto addBookings(List<BookingDto> bookingDtos, Long bookerId) {
+        User booker = userValidator.validateUserIdAndReturnIt(bookerId);
+        List<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BatchRowResultDto[] results = new BatchRowResultDto[bookingDtos.size()];
+        List<Integer> validRows = new ArrayList<>();
+        List<Booking> validBookings = new ArrayList<>();
+        for (int row = 0; row < bookingDtos.size(); row++) {
+            BookingDto bookingDto = bookingDtos.get(row);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new EntityNotFoundException("Вещи с id " + bookingDto.getItemId() + " не существует!");
+                }
+                validateNewBooking(bookingDto, item, bookerId);
+                bookingDto.setStatus(BookingStatus.WAITING);
+                Booking booking = toBookingDb(bookingDto, item, booker);
+                booking.setId(0);
+                validBookings.add(booking);
+                validRows.add(row);
+            } catch (EntityNotFoundException | IncorrectDataException e) {
+                results[row] = BatchRowResultDto.failed(row, e.getMessage());
+            }
+        }
+
+        Map<Long, List<BookingPeriodView>> approvedPeriods = findApprovedPeriods(validBookings);
+        List<Integer> rowsToSave = new ArrayList<>();
+        List<Booking> bookingsToSave = new ArrayList<>();
+        for (int i = 0; i < validBookings.size(); i++) {
+            Booking booking = validBookings.get(i);
+            boolean overlaps = approvedPeriods.getOrDefault(booking.itemId(), List.of()).stream()
+                    .anyMatch(period -> period.getStartDate().isBefore(booking.getEnd())
+                            && period.getEndDate().isAfter(booking.getStart()));
+            if (overlaps) {
+                results[validRows.get(i)] = BatchRowResultDto.failed(validRows.get(i), "Вещь уже забронирована на эти даты!");
+            } else {
+                bookingsToSave.add(booking);
+                rowsToSave.add(validRows.get(i));
+            }
+        }
+
+        if (!bookingsToSave.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                bookingRepository.saveAll(bookingsToSave);
+                itemBookingSummaryUpdater.onBookingsSaved(bookingsToSave);
+            });
+        }
+        for (int i = 0; i < bookingsToSave.size(); i++) {
+            Booking savedBooking = bookingsToSave.get(i);
+            itemAvailabilityIndex.onBookingSaved(savedBooking);
+            results[rowsToSave.get(i)] = BatchRowResultDto.created(rowsToSave.get(i), savedBooking.getId());
+        }
+        return BatchResultDto.of(Arrays.asList(results));
+    }
+
+    /**
+     * Подтверждённые бронирования вещей пакета, пересекающие общий период его строк, по id вещи.
+     */
+    private Map<Long, List<BookingPeriodView>> findApprovedPeriods(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> itemIds = new HashSet<>();
+        LocalDateTime from = LocalDateTime.MAX;
+        LocalDateTime to = LocalDateTime.MIN;
+        for (Booking booking : bookings) {
+            itemIds.add(booking.itemId());
+            from = booking.getStart().isBefore(from) ? booking.getStart() : from;
+            to = booking.getEnd().isAfter(to) ? booking.getEnd() : to;
+        }
+        return bookingRepository.findPeriodsByItemIdsAndStatusOverlapping(itemIds, BookingStatus.APPROVED, from, to).stream()
+                .collect(Collectors.groupingBy(BookingPeriodView::getItemId));
+    }
+
+    private void validateNewBooking(BookingDto bookingDto, Item item, long bookerId) {
+        if (item.getOwner().getId() == bookerId) {
             throw new EntityNotFoundException("Владелец не может забронировать свою же вещь!");
         }
 
-        if (!itemFromDb.getAvailable()) {
+        if (!item.getAvailable()) {
             throw new IncorrectDataException("Вещь не доступна для бронирования!");
         }
 
@@ -61,14 +198,27 @@ public class BookingServiceImpl implements BookingService {
                 || bookingDto.getEnd().isBefore(LocalDateTime.now()) || bookingDto.getStart().isBefore(LocalDateTime.now())) {
             throw new IncorrectDataException("Некорректные даты бронирования!");
         }
-
-        bookingDto.setStatus(BookingStatus.WAITING);
-        return toBookingDto(bookingRepository.save(toBookingDb(bookingDto, itemFromDb, booker)));
     }
 
+    /**
+     * Одновременные подтверждения одного бронирования не перезаписывают друг друга: сохранение проверяет версию,
+     * и проигравший запрос перечитывает бронирование и повторяет проверки уже на свежем состоянии.
+     */
     @Override
     public BookingDto approveBooking(Long bookingId, Long ownerId, String approve) {
         userValidator.validateUserId(ownerId);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tryApproveBooking(bookingId, ownerId, approve);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == APPROVE_ATTEMPTS) {
+                    throw new BookingConflictException("Бронирование " + bookingId + " одновременно изменяется другим запросом!");
+                }
+            }
+        }
+    }
+
+    private BookingDto tryApproveBooking(Long bookingId, Long ownerId, String approve) {
         Booking bookingFromDb = bookingValidator.validateBookingIdAndReturnIt(bookingId);
         BookingDto bookingDto = toBookingDto(bookingFromDb);
         if (!Objects.equals(bookingDto.getItem().getOwnerId(), ownerId)) {
@@ -90,100 +240,81 @@ public class BookingServiceImpl implements BookingService {
             default:
                 throw new IncorrectDataException("Некорректные данные для подтверждения статуса!");
         }
+        if (bookingDto.getStatus() == BookingStatus.APPROVED && bookingRepository.existsApprovedOverlapping(
+                bookingFromDb.itemId(), bookingId, BookingStatus.APPROVED, bookingFromDb.getStart(), bookingFromDb.getEnd())) {
+            throw new BookingConflictException("Вещь уже забронирована на эти даты!");
+        }
         Booking bookingToUpdate = toBookingUpdate(bookingDto, bookingFromDb);
-        bookingRepository.save(bookingToUpdate);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                bookingRepository.save(bookingToUpdate);
+                itemBookingSummaryUpdater.onBookingSaved(bookingToUpdate);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Вещь уже забронирована на эти даты!");
+        }
+        itemAvailabilityIndex.onBookingSaved(bookingToUpdate);
         return toBookingDto(bookingToUpdate);
     }
 
     @Override
     public BookingDto getBookingInfo(Long bookingId, Long userId) {
+        return getBookingInfo(bookingId, userId, etag -> false);
+    }
+
+    @Override
+    public BookingDto getBookingInfo(Long bookingId, Long userId, Predicate<String> notModified) {
         userValidator.validateUserId(userId);
-        BookingDto bookingDto = toBookingDto(bookingValidator.validateBookingIdAndReturnIt(bookingId));
-        if (!Objects.equals(bookingDto.getItem().getOwnerId(), userId) && !Objects.equals(bookingDto.getBooker().getId(), userId)) {
+        Booking booking = bookingValidator.validateBookingIdAndReturnIt(bookingId);
+        if (!Objects.equals(booking.getItem().ownerId(), userId) && !Objects.equals(booking.bookerId(), userId)) {
             throw new EntityNotFoundException("Пользователь с id " + userId + " не является владельцем!");
         }
-        return bookingDto;
+        if (notModified.test(EntityTag.of(booking).and(booking.getItem()).and(booking.getBooker()).build())) {
+            return null;
+        }
+        return toBookingDto(booking);
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByUserId(Long userId, String state, Pageable page) {
+    public List<BookingDto> getAllBookingsByUserId(Long userId, String state, Pageable page, PageCursor after) {
         userValidator.validateUserId(userId);
-        bookingValidator.validateBookingState(state);
+        BookingState bookingState = bookingValidator.validateBookingState(state);
 
-        Pageable pageForBookings = PageRequest.of(page.getPageNumber(), page.getPageSize(), SORT_BY_START_DESC);
-        List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "WAITING": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndWaitingStatus(userId, BookingStatus.WAITING, pageForBookings));
-                break;
-            }
-            case "REJECTED": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndRejectedStatus(userId, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), pageForBookings));
-                break;
-            }
-            case "CURRENT": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndCurrentStatus(userId, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "FUTURE": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndFutureStatus(userId, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "PAST": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBookerIdAndPastStatus(userId, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "ALL": {
-                bookings = new ArrayList<>(bookingRepository.findAllByBooker_Id(userId, pageForBookings));
-                break;
-            }
-            default:
-                bookings = new ArrayList<>();
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(bookedBy(userId), bookingState, page, after);
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByOwnerId(Long ownerId, String state, Pageable page) {
+    public List<BookingDto> getAllBookingsByOwnerId(Long ownerId, String state, Pageable page, PageCursor after) {
         userValidator.validateUserId(ownerId);
-        bookingValidator.validateBookingState(state);
-        Pageable pageForBookings = PageRequest.of(page.getPageNumber(), page.getPageSize(), SORT_BY_START_DESC);
+        BookingState bookingState = bookingValidator.validateBookingState(state);
 
-        List<Long> userItemsIds = itemRepository.findByOwner_Id_WithoutPageable(ownerId).stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        if (userItemsIds.isEmpty()) {
+        if (!itemRepository.existsByOwner_Id(ownerId)) {
             throw new IncorrectDataException("Данная функция доступна только пользователям у которых >1 вещи");
         }
-        List<Booking> bookings;
-        switch (state.toUpperCase()) {
-            case "WAITING": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndWaitingStatus(userItemsIds, BookingStatus.WAITING, pageForBookings));
-                break;
-            }
-            case "REJECTED": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndRejectedStatus(userItemsIds, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), pageForBookings));
-                break;
-            }
-            case "CURRENT": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndCurrentStatus(userItemsIds, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "FUTURE": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndFutureStatus(userItemsIds, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "PAST": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItemsAndPastStatus(userItemsIds, LocalDateTime.now(), pageForBookings));
-                break;
-            }
-            case "ALL": {
-                bookings = new ArrayList<>(bookingRepository.findAllByOwnerItems(userItemsIds, pageForBookings));
-                break;
-            }
-            default:
-                bookings = new ArrayList<>();
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        return findBookings(ownedBy(ownerId), bookingState, page, after);
+    }
+
+    @Override
+    public StreamingResponseBody exportBookingsByUserId(Long userId) {
+        userValidator.validateUserId(userId);
+        return ndjsonExporter.export(() -> bookingRepository.streamAllByBookerId(userId), BookingMapper::toBookingDto);
+    }
+
+    @Override
+    public StreamingResponseBody exportBookingsByOwnerId(Long ownerId) {
+        userValidator.validateUserId(ownerId);
+        return ndjsonExporter.export(() -> bookingRepository.streamAllByOwnerId(ownerId), BookingMapper::toBookingDto);
+    }
+
+    /**
+     * Роль пользователя, состояние и курсор складываются в один запрос, отсортированный по (start, id) по убыванию.
+     */
+    private List<BookingDto> findBookings(Specification<Booking> role, BookingState state, Pageable page, PageCursor after) {
+        Specification<Booking> specification = role
+                .and(inState(state, LocalDateTime.now()))
+                .and(BookingSpecifications.after(after));
+        return bookingRepository.findPage(specification, OffsetPageRequest.withSort(page, SORT_BY_START_DESC)).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
     }
 }
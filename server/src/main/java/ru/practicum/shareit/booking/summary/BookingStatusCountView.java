@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.summary;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+public interface BookingStatusCountView {
+
+    Long getItemId();
+
+    BookingStatus getStatus();
+
+    Long getCount();
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Сводка бронирований вещи для списка вещей владельца: последнее и следующее актуальные бронирования
+ * и число бронирований в каждом статусе. Пересчитывается в транзакции записи бронирований вещи,
+ * а переход следующего бронирования в прошлое подхватывает периодическая задача.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "item_booking_summary")
+@NoArgsConstructor
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    @ToString.Exclude
+    private Booking lastBooking;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    @ToString.Exclude
+    private Booking nextBooking;
+    /**
+     * Начало следующего бронирования, по нему задача находит устаревшие сводки без соединения с bookings.
+     */
+    @Column(name = "next_booking_start")
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime nextBookingStart;
+    @Column(name = "waiting_count")
+    private long waitingCount;
+    @Column(name = "approved_count")
+    private long approvedCount;
+    @Column(name = "rejected_count")
+    private long rejectedCount;
+    @Column(name = "canceled_count")
+    private long canceledCount;
+    @Version
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public void setNextBooking(Booking nextBooking) {
+        this.nextBooking = nextBooking;
+        this.nextBookingStart = nextBooking != null ? nextBooking.getStart() : null;
+    }
+
+    public void resetCounts() {
+        waitingCount = 0;
+        approvedCount = 0;
+        rejectedCount = 0;
+        canceledCount = 0;
+    }
+
+    public void setCount(BookingStatus status, long count) {
+        switch (status) {
+            case WAITING:
+                waitingCount = count;
+                break;
+            case APPROVED:
+                approvedCount = count;
+                break;
+            case REJECTED:
+                rejectedCount = count;
+                break;
+            case CANCELED:
+                canceledCount = count;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Счётчики не зависят от текущего времени, поэтому остаются верными и в сводке,
+     * которая по {@link #isActualAt(LocalDateTime)} уже ждёт сдвига.
+     */
+    public Map<BookingStatus, Long> getCounts() {
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        counts.put(BookingStatus.WAITING, waitingCount);
+        counts.put(BookingStatus.APPROVED, approvedCount);
+        counts.put(BookingStatus.REJECTED, rejectedCount);
+        counts.put(BookingStatus.CANCELED, canceledCount);
+        return counts;
+    }
+
+    /**
+     * Сводка верна на момент now, пока её следующее бронирование ещё не началось.
+     */
+    public boolean isActualAt(LocalDateTime now) {
+        return nextBookingStart == null || nextBookingStart.isAfter(now);
+    }
+}
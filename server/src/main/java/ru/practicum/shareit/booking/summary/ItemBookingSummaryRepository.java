@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @EntityGraph(attributePaths = {"lastBooking", "lastBooking.booker", "nextBooking", "nextBooking.booker"})
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId in :itemIds order by s.itemId")
+    List<ItemBookingSummary> findAllByItemIdInForUpdate(Collection<Long> itemIds);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.nextBookingStart <= :now")
+    List<Long> findItemIdsWithStartedNextBooking(LocalDateTime now);
+}
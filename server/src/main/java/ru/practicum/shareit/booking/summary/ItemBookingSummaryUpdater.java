@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поддерживает сводки бронирований вещей: последнее и следующее бронирования и счётчики по статусам.
+ * Сводка пересчитывается в транзакции записи бронирований: если запись уже идёт в транзакции, пересчёт
+ * в неё входит и откатывается вместе с ней, поэтому сводка не расходится с бронированиями. Строки сводок блокируются в порядке id вещей, и одновременные записи по одной вещи
+ * пересчитывают её по очереди, каждая уже с учётом предыдущей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryUpdater {
+
+    private static final List<BookingStatus> NOT_ACTUAL_STATUSES = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Новая вещь сразу получает пустую сводку, чтобы первые бронирования вещи блокировали существующую строку,
+     * а не вставляли её одновременно.
+     */
+    public void onItemsCreated(Collection<Item> items) {
+        summaryRepository.saveAll(items.stream()
+                .map(item -> new ItemBookingSummary(item.getId()))
+                .collect(Collectors.toList()));
+    }
+
+    public void onBookingSaved(Booking booking) {
+        onBookingsSaved(List.of(booking));
+    }
+
+    public void onBookingsSaved(Collection<Booking> bookings) {
+        refresh(bookings.stream()
+                .map(Booking::itemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Время идёт без записей: следующее бронирование, которое уже началось, становится последним,
+     * поэтому сводки таких вещей пересчитываются по расписанию. До пересчёта такие сводки не используются
+     * при чтении, см. {@link ItemBookingSummary#isActualAt(LocalDateTime)}.
+     */
+    @Scheduled(initialDelayString = "${shareit.booking-summary.roll-forward-interval}",
+            fixedDelayString = "${shareit.booking-summary.roll-forward-interval}")
+    public void rollForward() {
+        List<Long> itemIds = summaryRepository.findItemIdsWithStartedNextBooking(LocalDateTime.now());
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds);
+            log.info("Сводки бронирований сдвинуты для вещей: {}", itemIds.size());
+        }
+    }
+
+    private void refresh(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<ItemBookingSummary> summaries = summaryRepository.findAllByItemIdInForUpdate(itemIds);
+            if (summaries.size() < itemIds.size()) {
+                createMissing(itemIds, summaries);
+                summaries = summaryRepository.findAllByItemIdInForUpdate(itemIds);
+            }
+            recalculate(summaries, itemIds, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Пустые сводки создаются вместе с вещами, см. {@link #onItemsCreated(Collection)}; здесь досоздаются
+     * только сводки, которых нет, например у вещи, чья сводка не сохранилась после создания.
+     */
+    private void createMissing(List<Long> itemIds, List<ItemBookingSummary> existing) {
+        Set<Long> existingIds = existing.stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toSet());
+        List<ItemBookingSummary> missing = itemIds.stream()
+                .filter(itemId -> !existingIds.contains(itemId))
+                .map(ItemBookingSummary::new)
+                .collect(Collectors.toList());
+        summaryRepository.saveAll(missing);
+    }
+
+    private void recalculate(List<ItemBookingSummary> summaries, List<Long> itemIds, LocalDateTime now) {
+        Map<Long, Booking> lastBookings = byItemId(bookingRepository.findLastBookingsByItemIds(itemIds, NOT_ACTUAL_STATUSES, now));
+        Map<Long, Booking> nextBookings = byItemId(bookingRepository.findNextBookingsByItemIds(itemIds, NOT_ACTUAL_STATUSES, now));
+        Map<Long, ItemBookingSummary> summariesByItemId = summaries.stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        for (ItemBookingSummary summary : summaries) {
+            summary.setLastBooking(lastBookings.get(summary.getItemId()));
+            summary.setNextBooking(nextBookings.get(summary.getItemId()));
+            summary.resetCounts();
+        }
+        for (BookingStatusCountView count : bookingRepository.countByItemIdsAndStatus(itemIds)) {
+            if (count.getStatus() != null) {
+                summariesByItemId.get(count.getItemId()).setCount(count.getStatus(), count.getCount());
+            }
+        }
+        summaryRepository.saveAll(summaries);
+    }
+
+    private static Map<Long, Booking> byItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(Booking::itemId, Function.identity()));
+    }
+}
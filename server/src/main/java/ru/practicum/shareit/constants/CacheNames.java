@@ -0,0 +1,6 @@
+package ru.practicum.shareit.constants;
+
+public class CacheNames {
+    public static final String USER_EXISTS = "userExists";
+    public static final String ITEM_EXISTS = "itemExists";
+}
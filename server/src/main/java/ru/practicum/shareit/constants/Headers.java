@@ -2,4 +2,5 @@ package ru.practicum.shareit.constants;
 
 public class Headers {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 }
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.comment.Comment;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETag представления, собранный из идентификаторов и версий всех сущностей, которые в него входят.
+ * Любое изменение одной из них увеличивает её версию и, значит, меняет ETag; сами DTO для расчёта не нужны.
+ */
+public class EntityTag {
+
+    private static final String ABSENT = "-";
+
+    private final StringBuilder parts = new StringBuilder();
+
+    public static EntityTag of(User user) {
+        return new EntityTag().and(user);
+    }
+
+    public static EntityTag of(Item item) {
+        return new EntityTag().and(item);
+    }
+
+    public static EntityTag of(Booking booking) {
+        return new EntityTag().and(booking);
+    }
+
+    public static EntityTag of(ItemRequest request) {
+        return new EntityTag().and(request);
+    }
+
+    public EntityTag and(User user) {
+        return user == null ? append(ABSENT) : append("user", user.getId(), user.getVersion());
+    }
+
+    public EntityTag and(Item item) {
+        return item == null ? append(ABSENT) : append("item", item.getId(), item.getVersion());
+    }
+
+    public EntityTag and(Booking booking) {
+        return booking == null ? append(ABSENT) : append("booking", booking.getId(), booking.getVersion());
+    }
+
+    public EntityTag and(ItemRequest request) {
+        return request == null ? append(ABSENT) : append("request", request.getId(), request.getVersion());
+    }
+
+    /**
+     * Отзывы не редактируются, поэтому достаточно их идентификатора; имя автора учитывается по версии автора.
+     */
+    public EntityTag and(Comment comment) {
+        return append("comment", comment.getId(), null).and(comment.getAuthor());
+    }
+
+    /**
+     * Учитывает признак, от которого зависит вид представления, например, запрашивает ли вещь её владелец.
+     */
+    public EntityTag and(String name, Object value) {
+        return append(name + "=" + value);
+    }
+
+    /**
+     * @return значение заголовка ETag в кавычках
+     */
+    public String build() {
+        return "\"" + DigestUtils.md5DigestAsHex(parts.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private EntityTag append(String type, Long id, Long version) {
+        return append(type + ":" + id + ":" + version);
+    }
+
+    private EntityTag append(String part) {
+        parts.append(part).append(';');
+        return this;
+    }
+}
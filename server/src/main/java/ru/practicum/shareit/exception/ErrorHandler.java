@@ -22,6 +22,12 @@ public class ErrorHandler {
         return String.format("Адрес эл. почты уже зарегистрирован %s", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleBookingConflictException(BookingConflictException e) {
+        return String.format("Ошибка! Конфликт бронирований: %s", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public String handleEmptyFieldException(EmptyFieldException e) {
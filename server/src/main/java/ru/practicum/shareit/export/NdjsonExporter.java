@@ -0,0 +1,61 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка в формате NDJSON: одна JSON-строка на сущность. Сущности читаются одним курсором базы данных
+ * внутри read-only транзакции и сразу пишутся в ответ, а контекст персистентности периодически очищается,
+ * поэтому память не зависит от размера выгрузки.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExporter {
+
+    static final int ROWS_PER_FLUSH = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    public <T, D> StreamingResponseBody export(Supplier<Stream<T>> query, Function<T, D> mapper) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<T> entities = query.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setRootValueSeparator(null);
+                    int rows = 0;
+                    for (Iterator<T> iterator = entities.iterator(); iterator.hasNext(); ) {
+                        writer.writeValue(generator, mapper.apply(iterator.next()));
+                        generator.writeRaw('\n');
+                        if (++rows % ROWS_PER_FLUSH == 0) {
+                            generator.flush();
+                            entityManager.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+    }
+}
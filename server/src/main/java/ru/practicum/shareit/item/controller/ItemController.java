@@ -2,8 +2,10 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,12 +15,24 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.validator.PageableValidator;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+
+import static ru.practicum.shareit.constants.Headers.NEXT_CURSOR;
 
 
 @RestController
@@ -36,6 +50,12 @@ public class ItemController {
         return itemService.createItem(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createItems(@RequestBody List<ItemDto> itemDtos, @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Пакетное создание {} вещей пользователя с id {}", itemDtos.size(), userId);
+        return itemService.createItems(itemDtos, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable long itemId, @RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long userId) {
         log.debug("Обновление элемента с id {}", itemId);
@@ -44,18 +64,43 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public ItemDto getItemById(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") long userId, WebRequest request) {
         log.debug("Получение элемента с id : {} ", itemId);
-        return itemService.getItemById(itemId, userId);
+        return itemService.getItemById(itemId, userId, request::checkNotModified);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                   @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Получение занятости вещи с id {} с {} по {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, userId, from, to);
     }
 
     @GetMapping()
     public Collection<ItemDto> getUserItems(@RequestParam(defaultValue = "0") Integer from,
                                             @RequestParam(defaultValue = "10") Integer size,
-                                            @RequestHeader("X-Sharer-User-Id") long userId) {
+                                            @RequestParam(required = false) String after,
+                                            @RequestHeader("X-Sharer-User-Id") long userId,
+                                            HttpServletResponse response) {
         log.debug("Получение всех вещей пользователя с id {}", userId);
-        Pageable page = PageRequest.of(from / size, size);
-        return itemService.getItemsByUserId(userId, page);
+        PageCursor cursor = PageCursor.decode(after);
+        Pageable page = OffsetPageRequest.of(cursor == null ? from : 0, size);
+        Collection<ItemDto> items = itemService.getItemsByUserId(userId, page, cursor);
+        if (items.size() == size) {
+            ItemDto last = new ArrayList<>(items).get(items.size() - 1);
+            response.setHeader(NEXT_CURSOR, PageCursor.ofId(last.getId()).encode());
+        }
+        return items;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUserItems(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.debug("Выгрузка всех вещей пользователя с id {}", userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(itemService.exportItemsByUserId(userId));
     }
 
     @GetMapping("/search")
@@ -63,7 +108,7 @@ public class ItemController {
                                                    @RequestParam(defaultValue = "10") Integer size,
                                                    @RequestParam String text) {
         log.debug("Получение вещей при помощи поиска по запросу: {}", text);
-        Pageable page = PageRequest.of(from / size, size);
+        Pageable page = OffsetPageRequest.of(from, size);
         return itemService.getItemsBySearching(text, page);
     }
 
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Boolean available;
+    private List<AvailabilityPeriodDto> busy;
+    private List<AvailabilityPeriodDto> free;
+}
@@ -5,10 +5,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingLiteDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -23,6 +25,10 @@ public class ItemDto {
     private List<ItemRequest> requests;
     private BookingLiteDto nextBooking;
     private BookingLiteDto lastBooking;
+    /**
+     * Число бронирований вещи в каждом статусе, заполняется только в списке вещей владельца.
+     */
+    private Map<BookingStatus, Long> bookingCounts;
     private Long ownerId;
     private List<CommentDto> comments;
     private Long requestId;
@@ -16,6 +16,7 @@ public class CommentMapper {
                 .id(commentDto.getId() != null ? commentDto.getId() : 0L)
                 .author(author)
                 .item(item)
+                .ownerId(item != null ? item.ownerId() : null)
                 .text(commentDto.getText())
                 .created(commentDto.getCreated())
                 .build();
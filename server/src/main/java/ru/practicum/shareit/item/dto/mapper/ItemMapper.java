@@ -81,6 +81,7 @@ public class ItemMapper {
                 .description(itemDto.getDescription() != null ? itemDto.getDescription() : item.getDescription())
                 .available(itemDto.getAvailable() != null ? itemDto.getAvailable() : item.getAvailable())
                 .owner(item.getOwner())
+                .version(item.getVersion())
                 .build();
     }
 
@@ -127,4 +128,12 @@ public class ItemMapper {
         itemDto.setComments(comments);
         return itemDto;
     }
+
+    public static ItemDto toItemDtoWithLastAndNextBookings(Item item, BookingDto lastBooking, BookingDto nextBooking,
+                                                           List<CommentDto> comments) {
+        ItemDto itemDto = toItemDtoWithComments(item, comments);
+        itemDto.setLastBooking(toBookingLiteDto(lastBooking));
+        itemDto.setNextBooking(toBookingLiteDto(nextBooking));
+        return itemDto;
+    }
 }
\ No newline at end of file
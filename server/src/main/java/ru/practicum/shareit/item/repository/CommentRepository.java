@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -11,9 +13,13 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(attributePaths = {"item", "author"})
     List<Comment> findAllByItem_Id(Long itemId);
 
-    @Query("select c from Comment c where c.item.owner.id = :userId")
+    @EntityGraph(attributePaths = {"item", "author"})
+    List<Comment> findAllByItem_IdIn(List<Long> itemIds, Sort sort);
+
+    @Query("select c from Comment c where c.ownerId = :userId")
     List<Comment> findAllItemByUserId(Long userId, Pageable page);
 
 }
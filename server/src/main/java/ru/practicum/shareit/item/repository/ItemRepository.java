@@ -1,23 +1,53 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchView;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.constants.CacheNames.ITEM_EXISTS;
 
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findByOwner_Id(Long ownerId, Pageable page);
+    @Override
+    @Cacheable(cacheNames = ITEM_EXISTS, unless = "!#result")
+    boolean existsById(Long id);
+
+    List<Item> findByOwner_IdAndIdGreaterThan(Long ownerId, Long afterId, Pageable page);
+
+    boolean existsByOwner_Id(Long ownerId);
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
 
-    @Query("select i from Item i where i.owner.id = :ownerId")
-    List<Item> findByOwner_Id_WithoutPageable(Long ownerId);
+    @Query("select i from Item i where i.request.id IN :requestIds order by i.id")
+    List<Item> findAllByRequest_IdIn(List<Long> requestIds);
 
     @Query("select i from Item i where i.available = true AND (upper(i.name) like upper(concat('%', ?1, '%')) OR " +
             "upper (i.description) like upper(concat('%', ?1, '%')))")
     List<Item> search(String text, Pageable page);
+
+    @Query(value = "select i.* from items i where i.is_available = true AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id", nativeQuery = true)
+    List<Item> searchFullText(String query, Pageable page);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId from Item i order by i.id")
+    Stream<ItemSearchView> streamAllForSearch();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select i from Item i where i.owner.id = :ownerId order by i.id")
+    Stream<Item> streamAllByOwnerId(Long ownerId);
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Полнотекстовый поиск Postgres по колонке items.search_vector (GIN-индекс).
+ * Каждое слово запроса ищется как префикс, результаты упорядочены по релевантности.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "full-text")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        String query = toPrefixQuery(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.searchFullText(query, page);
+    }
+
+    public static String toPrefixQuery(String text) {
+        StringJoiner query = new StringJoiner(" & ");
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                query.add(token + ":*");
+            }
+        }
+        return query.toString();
+    }
+}
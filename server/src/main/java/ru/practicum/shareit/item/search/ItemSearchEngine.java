@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, Pageable page);
+
+    /**
+     * Вызывается после сохранения вещи. Движки, которые ищут прямо в базе, ничего не делают.
+     */
+    default void onItemSaved(Item item) {
+    }
+
+    /**
+     * Вызывается после удаления вещей, например каскадного вместе с владельцем.
+     */
+    default void onItemsRemoved(Collection<Long> itemIds) {
+    }
+}
@@ -0,0 +1,256 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс вещей в памяти: слово из названия или описания -> отсортированные id вещей.
+ * Слова запроса ищутся как префиксы, вещь должна подходить под все слова.
+ * Строится при старте приложения и обновляется при создании, изменении и удалении вещей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "in-memory")
+public class ItemSearchIndex implements ItemSearchEngine, SmartInitializingSingleton {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+    private Map<Long, Item> items = new HashMap<>();
+
+    /**
+     * Индекс строится после создания всех бинов, до запуска веб-сервера: пока он строится, запросы не приходят,
+     * и изменения из onItemSaved не теряются при замене построенной копией.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    private void rebuild() {
+        NavigableMap<String, LongPostingList> newPostings = new TreeMap<>();
+        Map<Long, Item> newItems = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ItemSearchView> views = itemRepository.streamAllForSearch()) {
+                views.forEach(view -> {
+                    Item item = toSnapshot(view.getId(), view.getName(), view.getDescription(),
+                            view.getAvailable(), view.getOwnerId());
+                    newItems.put(item.getId(), item);
+                    addTerms(newPostings, item);
+                });
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            items = newItems;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс вещей построен: вещей {}, слов {}", newItems.size(), newPostings.size());
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        Item snapshot = toSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.ownerId());
+        lock.writeLock().lock();
+        try {
+            Item previous = items.put(snapshot.getId(), snapshot);
+            if (previous != null) {
+                removeTerms(previous);
+            }
+            addTerms(postings, snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onItemsRemoved(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                Item previous = items.remove(itemId);
+                if (previous != null) {
+                    removeTerms(previous);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        Set<String> tokens = tokenize(text);
+        List<Item> result = new ArrayList<>();
+        if (tokens.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] matched = null;
+            for (String token : tokens) {
+                long[] ids = findByPrefix(token);
+                matched = matched == null ? ids : intersect(matched, ids);
+                if (matched.length == 0) {
+                    return result;
+                }
+            }
+
+            long toSkip = page.getOffset();
+            for (long id : matched) {
+                Item item = items.get(id);
+                if (!Boolean.TRUE.equals(item.getAvailable())) {
+                    continue;
+                }
+                if (toSkip > 0) {
+                    toSkip--;
+                    continue;
+                }
+                result.add(item);
+                if (result.size() == page.getPageSize()) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] findByPrefix(String prefix) {
+        Map<String, LongPostingList> matchedTerms = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+        if (matchedTerms.size() == 1) {
+            LongPostingList list = matchedTerms.values().iterator().next();
+            long[] ids = new long[list.size()];
+            list.copyTo(ids, 0);
+            return ids;
+        }
+
+        int total = 0;
+        for (LongPostingList list : matchedTerms.values()) {
+            total += list.size();
+        }
+        long[] ids = new long[total];
+        int offset = 0;
+        for (LongPostingList list : matchedTerms.values()) {
+            offset = list.copyTo(ids, offset);
+        }
+        Arrays.sort(ids);
+        return distinct(ids);
+    }
+
+    private void addTerms(NavigableMap<String, LongPostingList> target, Item item) {
+        for (String term : terms(item)) {
+            target.computeIfAbsent(term, key -> new LongPostingList()).add(item.getId());
+        }
+    }
+
+    private void removeTerms(Item item) {
+        for (String term : terms(item)) {
+            LongPostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(item.getId());
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Set<String> terms(Item item) {
+        Set<String> terms = tokenize(item.getName());
+        terms.addAll(tokenize(item.getDescription()));
+        return terms;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static long[] distinct(long[] sorted) {
+        if (sorted.length == 0) {
+            return sorted;
+        }
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[size - 1]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, size);
+    }
+
+    private static Item toSnapshot(Long id, String name, String description, Boolean available, Long ownerId) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(ownerId != null ? User.builder().id(ownerId).build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+public interface ItemSearchView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+}
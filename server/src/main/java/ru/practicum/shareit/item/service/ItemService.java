@@ -1,23 +1,54 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 
 public interface ItemService {
 
     ItemDto createItem(ItemDto item, long userId);
 
+    /**
+     * Создаёт вещи пользователя одним пакетом. Строки с ошибками не сохраняются и не мешают остальным.
+     */
+    BatchResultDto createItems(List<ItemDto> items, long userId);
+
     ItemDto updateItem(ItemDto item, long userId);
 
     ItemDto getItemById(long itemId, long userId);
 
-    Collection<ItemDto> getItemsByUserId(long userId, Pageable page);
+    /**
+     * Возвращает null, не собирая DTO, если notModified подтвердил ETag, который уже есть у клиента.
+     * Хранилище в памяти не ведёт версий, поэтому по умолчанию вещь возвращается всегда.
+     */
+    default ItemDto getItemById(long itemId, long userId, Predicate<String> notModified) {
+        return getItemById(itemId, userId);
+    }
+
+    /**
+     * Занятые подтверждёнными бронированиями и свободные промежутки вещи внутри периода [from, to).
+     */
+    ItemAvailabilityDto getItemAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to);
+
+    Collection<ItemDto> getItemsByUserId(long userId, Pageable page, PageCursor after);
 
     Collection<ItemDto> getItemsBySearching(String text, Pageable page);
 
+    /**
+     * Все вещи пользователя в формате NDJSON. Пользователь проверяется сразу, а вещи читаются,
+     * когда ответ начинает записываться.
+     */
+    StreamingResponseBody exportItemsByUserId(long userId);
+
     ItemDto checkItemOwner(Long itemId, Long ownerId);
 
     CommentDto addCommentToItem(Long userId, Long itemId, CommentDto commentDto);
@@ -2,22 +2,41 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.exception.EmptyFieldException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.export.NdjsonExporter;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.comment.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -26,21 +45,23 @@ import ru.practicum.shareit.validator.UserValidator;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.item.dto.comment.CommentMapper.toCommentDto;
-import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItem;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDb;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDbWithRequest;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDto;
-import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDtoWithBookings;
-import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDtoWithBookingsAndComments;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDtoWithComments;
+import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDtoWithLastAndNextBookings;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemDtoWithRequestId;
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemUpdate;
 
@@ -49,12 +70,20 @@ import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItemUpdate;
 @RequiredArgsConstructor
 public class ItemServiceDbImpl implements ItemService {
 
+    private static final List<BookingStatus> NOT_ACTUAL_STATUSES = List.of(BookingStatus.REJECTED, BookingStatus.CANCELED);
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created");
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    private final NdjsonExporter ndjsonExporter;
     private final UserValidator userValidator;
     private final ItemValidator itemValidator;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
     public ItemDto createItem(ItemDto itemDto, long userId) {
@@ -63,9 +92,69 @@ public class ItemServiceDbImpl implements ItemService {
         if (itemDto.getRequestId() != null) {
             ItemRequest request = itemRequestRepository.findById(itemDto.getRequestId())
                     .orElseThrow(() -> new EntityNotFoundException("Запроса на вещь с таким ID не обнаружено! ID запроса: " + itemDto.getRequestId()));
-            return toItemDtoWithRequestId(itemRepository.save(toItemDbWithRequest(itemDto, userFromDb, request)));
+            Item savedItem = itemRepository.save(toItemDbWithRequest(itemDto, userFromDb, request));
+            itemSearchEngine.onItemSaved(savedItem);
+            itemBookingSummaryUpdater.onItemsCreated(List.of(savedItem));
+            return toItemDtoWithRequestId(savedItem);
         }
-        return toItemDto(itemRepository.save(toItemDb(itemDto, userFromDb)));
+        Item savedItem = itemRepository.save(toItemDb(itemDto, userFromDb));
+        itemSearchEngine.onItemSaved(savedItem);
+        itemBookingSummaryUpdater.onItemsCreated(List.of(savedItem));
+        return toItemDto(savedItem);
+    }
+
+    /**
+     * Владелец проверяется один раз, запросы всех строк читаются одним запросом, а вещи сохраняются одним saveAll:
+     * id берутся из последовательности блоками, поэтому Hibernate отправляет вставки JDBC-пакетами.
+     */
+    @Override
+    public BatchResultDto createItems(List<ItemDto> itemDtos, long userId) {
+        User owner = userValidator.validateUserIdAndReturnIt(userId);
+        List<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of() : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        BatchRowResultDto[] results = new BatchRowResultDto[itemDtos.size()];
+        List<Integer> rowsToSave = new ArrayList<>();
+        List<Item> itemsToSave = new ArrayList<>();
+        for (int row = 0; row < itemDtos.size(); row++) {
+            ItemDto itemDto = itemDtos.get(row);
+            try {
+                itemValidator.validateItemData(itemDto);
+                Item item;
+                if (itemDto.getRequestId() != null) {
+                    ItemRequest request = requests.get(itemDto.getRequestId());
+                    if (request == null) {
+                        throw new EntityNotFoundException("Запроса на вещь с таким ID не обнаружено! ID запроса: " + itemDto.getRequestId());
+                    }
+                    item = toItemDbWithRequest(itemDto, owner, request);
+                } else {
+                    item = toItemDb(itemDto, owner);
+                }
+                item.setId(0);
+                itemsToSave.add(item);
+                rowsToSave.add(row);
+            } catch (EmptyFieldException | EntityNotFoundException e) {
+                results[row] = BatchRowResultDto.failed(row, e.getMessage());
+            }
+        }
+
+        if (!itemsToSave.isEmpty()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                itemRepository.saveAll(itemsToSave);
+                itemBookingSummaryUpdater.onItemsCreated(itemsToSave);
+            });
+        }
+        for (int i = 0; i < itemsToSave.size(); i++) {
+            Item savedItem = itemsToSave.get(i);
+            itemSearchEngine.onItemSaved(savedItem);
+            results[rowsToSave.get(i)] = BatchRowResultDto.created(rowsToSave.get(i), savedItem.getId());
+        }
+        return BatchResultDto.of(Arrays.asList(results));
     }
 
     @Override
@@ -73,62 +162,147 @@ public class ItemServiceDbImpl implements ItemService {
         userValidator.validateUserId(userId);
         Item itemToUpdate = toItemUpdate(itemDto, itemValidator.validateItemIdAndReturnIt(itemDto.getId()));
         itemRepository.save(itemToUpdate);
+        itemSearchEngine.onItemSaved(itemToUpdate);
         return toItemDto(itemToUpdate);
     }
 
     @Override
     public ItemDto getItemById(long itemId, long userId) {
+        return getItemById(itemId, userId, etag -> false);
+    }
+
+    @Override
+    public ItemDto getItemById(long itemId, long userId, Predicate<String> notModified) {
         userValidator.validateUserId(userId);
         Item itemFromDb = itemValidator.validateItemIdAndReturnIt(itemId);
+        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
+        boolean isOwner = Objects.equals(itemFromDb.ownerId(), userId);
 
-        List<CommentDto> commentsForItem = commentRepository.findAllByItem_Id(itemId)
-                .stream()
+        Booking lastBooking = null;
+        Booking nextBooking = null;
+        if (isOwner) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBooking = bookingRepository
+                    .findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(itemId, NOT_ACTUAL_STATUSES, now)
+                    .orElse(null);
+            nextBooking = bookingRepository
+                    .findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAscIdAsc(itemId, NOT_ACTUAL_STATUSES, now)
+                    .orElse(null);
+        }
+        EntityTag etag = EntityTag.of(itemFromDb).and("owner", isOwner);
+        comments.forEach(etag::and);
+        if (isOwner) {
+            etag.and(lastBooking).and(lastBooking != null ? lastBooking.getBooker() : null)
+                    .and(nextBooking).and(nextBooking != null ? nextBooking.getBooker() : null);
+        }
+        if (notModified.test(etag.build())) {
+            return null;
+        }
+
+        List<CommentDto> commentsForItem = comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
-        List<BookingDto> bookingsForItem = getOwnerBooking(userId)
-                .stream()
-                .filter(x -> x.getItem().getId().equals(itemId))
-                .collect(Collectors.toList());
-
-        if (!bookingsForItem.isEmpty() && !commentsForItem.isEmpty()) {
-            return toItemDtoWithBookingsAndComments(itemFromDb, bookingsForItem, commentsForItem);
-        } else if (!bookingsForItem.isEmpty()) {
-            return toItemDtoWithBookings(itemFromDb, bookingsForItem);
-        } else if (!commentsForItem.isEmpty()) {
+        if (!isOwner) {
             return toItemDtoWithComments(itemFromDb, commentsForItem);
-        } else {
-            return toItemDto(itemFromDb);
         }
+        return toItemDtoWithLastAndNextBookings(itemFromDb,
+                lastBooking != null ? BookingMapper.toBookingDto(lastBooking) : null,
+                nextBooking != null ? BookingMapper.toBookingDto(nextBooking) : null,
+                commentsForItem);
     }
 
     @Override
-    public Collection<ItemDto> getItemsByUserId(long userId, Pageable page) {
+    public ItemAvailabilityDto getItemAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IncorrectDataException("Начало периода должно быть раньше его окончания!");
+        }
         userValidator.validateUserId(userId);
-        Pageable pageForItems = PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by(Sort.Direction.ASC, "id"));
-        Pageable pageForComments = PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by(Sort.Direction.DESC, "created"));
+        itemValidator.validateItemId(itemId);
 
-        List<Item> userItems = new ArrayList<>(itemRepository.findByOwner_Id(userId, pageForItems));
-        List<CommentDto> commentsToUserItems = commentRepository.findAllItemByUserId(userId, pageForComments)
-                .stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
-        List<BookingDto> bookingsToUserItems = getOwnerBooking(userId);
+        List<AvailabilityPeriodDto> busy = itemAvailabilityIndex.findBusyPeriods(itemId, from, to);
+        List<AvailabilityPeriodDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (AvailabilityPeriodDto period : busy) {
+            if (period.getStart().isAfter(freeFrom)) {
+                free.add(new AvailabilityPeriodDto(freeFrom, period.getStart()));
+            }
+            if (period.getEnd().isAfter(freeFrom)) {
+                freeFrom = period.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new AvailabilityPeriodDto(freeFrom, to));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .available(busy.isEmpty())
+                .busy(busy)
+                .free(free)
+                .build();
+    }
 
-        Map<Item, List<BookingDto>> itemsWithBookingsMap = new HashMap<>();
-        Map<Item, List<CommentDto>> itemsWithCommentsMap = new HashMap<>();
+    /**
+     * Последнее и следующее бронирования берутся из сводок вещей одним запросом. Сводки, у которых следующее
+     * бронирование уже началось и которые задача сдвига ещё не пересчитала, не используются: для этих вещей
+     * бронирования читаются теми же правилами, что и в {@link #getItemById(long, long)}, поэтому оба ответа совпадают.
+     */
+    @Override
+    public Collection<ItemDto> getItemsByUserId(long userId, Pageable page, PageCursor after) {
+        userValidator.validateUserId(userId);
+        Pageable pageForItems = OffsetPageRequest.withSort(page, Sort.by(Sort.Direction.ASC, "id"));
 
-        for (Item i : userItems) {
-            itemsWithCommentsMap.put(i, commentsToUserItems.stream()
-                    .filter(c -> c.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList()));
-            itemsWithBookingsMap.put(i, bookingsToUserItems.stream()
-                    .filter(b -> b.getItem().getId().equals(i.getId()))
-                    .collect(Collectors.toList()));
+        List<Item> userItems = itemRepository.findByOwner_IdAndIdGreaterThan(userId, PageCursor.idOrMin(after), pageForItems);
+        if (userItems.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Long> itemIds = userItems.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
 
-        List<ItemDto> results = new ArrayList<>();
-        for (Item i : userItems) {
-            results.add(toItemDtoWithBookingsAndComments(i, itemsWithBookingsMap.get(i), itemsWithCommentsMap.get(i)));
+        Map<Long, List<CommentDto>> commentsByItemId = commentRepository.findAllByItem_IdIn(itemIds, SORT_BY_CREATED_DESC)
+                .stream()
+                .collect(Collectors.groupingBy(Comment::itemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        Map<Long, Map<BookingStatus, Long>> bookingCounts = new HashMap<>();
+        List<Long> itemIdsWithoutSummary = new ArrayList<>(itemIds);
+        for (ItemBookingSummary summary : itemBookingSummaryRepository.findAllByItemIdIn(itemIds)) {
+            bookingCounts.put(summary.getItemId(), summary.getCounts());
+            if (summary.isActualAt(now)) {
+                itemIdsWithoutSummary.remove(summary.getItemId());
+                lastBookings.put(summary.getItemId(), summary.getLastBooking());
+                nextBookings.put(summary.getItemId(), summary.getNextBooking());
+            }
+        }
+        if (!itemIdsWithoutSummary.isEmpty()) {
+            bookingRepository.findLastBookingsByItemIds(itemIdsWithoutSummary, NOT_ACTUAL_STATUSES, now)
+                    .forEach(booking -> lastBookings.put(booking.itemId(), booking));
+            bookingRepository.findNextBookingsByItemIds(itemIdsWithoutSummary, NOT_ACTUAL_STATUSES, now)
+                    .forEach(booking -> nextBookings.put(booking.itemId(), booking));
+        }
+        List<Long> itemIdsWithoutCounts = itemIds.stream()
+                .filter(itemId -> !bookingCounts.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!itemIdsWithoutCounts.isEmpty()) {
+            itemIdsWithoutCounts.forEach(itemId -> bookingCounts.put(itemId, new EnumMap<>(BookingStatus.class)));
+            bookingRepository.countByItemIdsAndStatus(itemIdsWithoutCounts).stream()
+                    .filter(count -> count.getStatus() != null)
+                    .forEach(count -> bookingCounts.get(count.getItemId()).put(count.getStatus(), count.getCount()));
         }
 
+        List<ItemDto> results = new ArrayList<>(userItems.size());
+        for (Item item : userItems) {
+            ItemDto itemDto = toItemDtoWithLastAndNextBookings(item,
+                    toBookingDtoOrNull(lastBookings.get(item.getId())),
+                    toBookingDtoOrNull(nextBookings.get(item.getId())),
+                    commentsByItemId.getOrDefault(item.getId(), new ArrayList<>()));
+            itemDto.setBookingCounts(bookingCounts.get(item.getId()));
+            results.add(itemDto);
+        }
         return results;
     }
 
@@ -137,11 +311,18 @@ public class ItemServiceDbImpl implements ItemService {
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
-        return itemRepository.search(text, page).stream()
+        return itemSearchEngine.search(text, page).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public StreamingResponseBody exportItemsByUserId(long userId) {
+        userValidator.validateUserId(userId);
+        return ndjsonExporter.export(() -> itemRepository.streamAllByOwnerId(userId),
+                item -> item.getRequest() != null ? toItemDtoWithRequestId(item) : toItemDto(item));
+    }
+
     @Override
     public ItemDto checkItemOwner(Long itemId, Long ownerId) {
         Item itemFromDb = itemValidator.validateItemIdAndReturnIt(itemId);
@@ -157,7 +338,7 @@ public class ItemServiceDbImpl implements ItemService {
     public CommentDto addCommentToItem(Long userId, Long itemId, CommentDto commentDto) {
 
         User author = userValidator.validateUserIdAndReturnIt(userId);
-        itemValidator.validateItemId(itemId);
+        Item item = itemValidator.validateItemIdAndReturnIt(itemId);
         itemValidator.validateCommentData(commentDto);
         commentDto.setCreated(LocalDateTime.now());
         List<BookingDto> bookings = bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(userId, itemId, LocalDateTime.now())
@@ -167,15 +348,11 @@ public class ItemServiceDbImpl implements ItemService {
         if (bookings.isEmpty()) {
             throw new IncorrectDataException("У этого пользователя нет забронированных вещей.");
         }
-        ItemDto item = getItemById(itemId, userId);
-        commentDto = toCommentDto(commentRepository.save(CommentMapper.toCommentDb(commentDto, author, toItem(item))));
+        commentDto = toCommentDto(commentRepository.save(CommentMapper.toCommentDb(commentDto, author, item)));
         return commentDto;
     }
 
-    private List<BookingDto> getOwnerBooking(Long ownerId) {
-        return bookingRepository.findAllByItem_Owner_Id(ownerId)
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+    private static BookingDto toBookingDtoOrNull(Booking booking) {
+        return booking != null ? BookingMapper.toBookingDto(booking) : null;
     }
 }
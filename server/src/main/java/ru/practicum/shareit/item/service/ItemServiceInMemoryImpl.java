@@ -3,16 +3,22 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.exception.EmptyFieldException;
+import ru.practicum.shareit.batch.BatchResultDto;
 import ru.practicum.shareit.exception.UnsupportedMethodException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.dto.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.inMemory.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.item.dto.mapper.ItemMapper.toItem;
@@ -37,6 +43,11 @@ public class ItemServiceInMemoryImpl implements ItemService {
         return toItemDto(itemRepository.createItem(toItem(item), userId));
     }
 
+    @Override
+    public BatchResultDto createItems(List<ItemDto> items, long userId) {
+        throw new UnsupportedMethodException("inMemory createItems");
+    }
+
     @Override
     public ItemDto updateItem(ItemDto item, long userId) {
         return toItemDto(itemRepository.updateItem(toItemUpdate(item, itemRepository.getItemById(item.getId())), userId));
@@ -48,7 +59,12 @@ public class ItemServiceInMemoryImpl implements ItemService {
     }
 
     @Override
-    public Collection<ItemDto> getItemsByUserId(long userId, Pageable page) {
+    public ItemAvailabilityDto getItemAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        throw new UnsupportedMethodException("inMemory getItemAvailability");
+    }
+
+    @Override
+    public Collection<ItemDto> getItemsByUserId(long userId, Pageable page, PageCursor after) {
         return itemRepository.getItemsByUserId(userId).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
@@ -65,6 +81,11 @@ public class ItemServiceInMemoryImpl implements ItemService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public StreamingResponseBody exportItemsByUserId(long userId) {
+        throw new UnsupportedMethodException("inMemory exportItemsByUserId");
+    }
+
     @Override
     public ItemDto checkItemOwner(Long itemId, Long ownerId) {
         throw new UnsupportedMethodException("inMemory checkItemOwner");
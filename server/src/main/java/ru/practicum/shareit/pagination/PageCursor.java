@@ -0,0 +1,73 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.IncorrectDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для постраничного вывода по ключу: (start, id) для бронирований, id для вещей и запросов.
+ * Клиент получает его в заголовке X-Next-Cursor и передаёт обратно в параметре after.
+ * Когда курсора нет, запросы получают граничные значения, поэтому условие по ключу всегда истинно.
+ * Начало усекается до микросекунд: с такой точностью его хранит база, и курсор из наносекунд
+ * пропускал бы граничную строку обратно на следующую страницу.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+
+    public static final LocalDateTime MAX_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final long id;
+
+    public static PageCursor of(LocalDateTime start, long id) {
+        return new PageCursor(start != null ? start.truncatedTo(ChronoUnit.MICROS) : null, id);
+    }
+
+    public static PageCursor ofId(long id) {
+        return new PageCursor(null, id);
+    }
+
+    public static LocalDateTime startOrMax(PageCursor cursor) {
+        return cursor != null && cursor.start != null ? cursor.start : MAX_START;
+    }
+
+    public static long idOrMax(PageCursor cursor) {
+        return cursor != null ? cursor.id : Long.MAX_VALUE;
+    }
+
+    public static long idOrMin(PageCursor cursor) {
+        return cursor != null ? cursor.id : 0L;
+    }
+
+    public String encode() {
+        String value = start != null ? start + SEPARATOR + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return ofId(Long.parseLong(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IncorrectDataException("Некорректный курсор страницы: " + cursor);
+        }
+    }
+}
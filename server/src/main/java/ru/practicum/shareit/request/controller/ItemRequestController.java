@@ -2,7 +2,6 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,11 +12,18 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
 import java.util.Collection;
 
+import static ru.practicum.shareit.constants.Headers.NEXT_CURSOR;
+
 
 @RestController
 @RequiredArgsConstructor
@@ -42,15 +48,23 @@ public class ItemRequestController {
     @GetMapping("/all")
     public Collection<ItemRequestDto> getAllCreatedRequests(@RequestParam(defaultValue = "0") Integer from,
                                                             @RequestParam(defaultValue = "10") Integer size,
-                                                            @RequestHeader("X-Sharer-User-Id") long userId) {
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestHeader("X-Sharer-User-Id") long userId,
+                                                            HttpServletResponse response) {
         log.debug("Получение списка всех созданных запросов!");
-        Pageable page = PageRequest.of(from, size, Sort.by("creationDate").descending());
-        return itemRequestService.getAllRequestsToResponse(userId, page);
+        PageCursor cursor = PageCursor.decode(after);
+        Pageable page = OffsetPageRequest.of(cursor == null ? from : 0, size, Sort.by(Sort.Direction.DESC, "id"));
+        Collection<ItemRequestDto> requests = itemRequestService.getAllRequestsToResponse(userId, page, cursor);
+        if (requests.size() == size) {
+            ItemRequestDto last = new ArrayList<>(requests).get(requests.size() - 1);
+            response.setHeader(NEXT_CURSOR, PageCursor.ofId(last.getId()).encode());
+        }
+        return requests;
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestById(@PathVariable Long requestId, @RequestHeader("X-Sharer-User-Id") long userId) {
+    public ItemRequestDto getRequestById(@PathVariable Long requestId, @RequestHeader("X-Sharer-User-Id") long userId, WebRequest request) {
         log.debug("Получение запроса на вещь с Id: {}", requestId);
-        return itemRequestService.getRequestById(userId, requestId);
+        return itemRequestService.getRequestById(userId, requestId, request::checkNotModified);
     }
 }
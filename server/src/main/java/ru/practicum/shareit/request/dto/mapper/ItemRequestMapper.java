@@ -23,9 +23,16 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
+        return toItemRequestDto(itemRequest, itemRequest.getResponsesToRequest());
+    }
+
+    /**
+     * Ответы на запрос передаются отдельно, чтобы не обращаться к ленивой коллекции запроса.
+     */
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<Item> responses) {
         List<RequestItemDto> items = null;
-        if (itemRequest.getResponsesToRequest() != null) {
-            items = itemRequest.getResponsesToRequest().stream()
+        if (responses != null) {
+            items = responses.stream()
                     .map(ItemRequestMapper::makeResultItemDto)
                     .collect(Collectors.toList());
         }
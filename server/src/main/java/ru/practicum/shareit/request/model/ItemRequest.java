@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -21,6 +22,7 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -39,11 +41,18 @@ public class ItemRequest {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User requester;
     @Column(name = "creation_date")
     private LocalDateTime creationDate;
+    @Version
+    @EqualsAndHashCode.Exclude
+    private Long version;
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     List<Item> responsesToRequest;
 }
@@ -1,16 +1,24 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findById(Long id);
+
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequester_Id(Long requesterId);
 
-    @Query("select ir from ItemRequest ir where ir.requester.id != :userId")
-    List<ItemRequest> findAllByAllOtherUsers(Long userId, Pageable page);
+    @EntityGraph(attributePaths = "requester")
+    @Query("select ir from ItemRequest ir where ir.requester.id != :userId AND ir.id < :beforeId")
+    List<ItemRequest> findAllByAllOtherUsers(Long userId, Long beforeId, Pageable page);
 }
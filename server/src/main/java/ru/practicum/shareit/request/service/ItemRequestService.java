@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 public interface ItemRequestService {
 
@@ -11,7 +13,12 @@ public interface ItemRequestService {
 
     Collection<ItemRequestDto> getAllUserRequestsWithResponses(Long userId);
 
-    Collection<ItemRequestDto> getAllRequestsToResponse(Long userId, Pageable page);
+    Collection<ItemRequestDto> getAllRequestsToResponse(Long userId, Pageable page, PageCursor after);
 
     ItemRequestDto getRequestById(Long userId, Long requestId);
+
+    /**
+     * Возвращает null, не собирая DTO, если notModified подтвердил ETag, который уже есть у клиента.
+     */
+    ItemRequestDto getRequestById(Long userId, Long requestId, Predicate<String> notModified);
 }
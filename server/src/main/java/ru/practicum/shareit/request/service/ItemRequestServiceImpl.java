@@ -3,8 +3,11 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
-import ru.practicum.shareit.request.dto.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -12,7 +15,11 @@ import ru.practicum.shareit.validator.ItemRequestValidator;
 import ru.practicum.shareit.validator.UserValidator;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.dto.mapper.ItemRequestMapper.toItemRequest;
@@ -23,6 +30,7 @@ import static ru.practicum.shareit.request.dto.mapper.ItemRequestMapper.toItemRe
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
     private final UserValidator userValidator;
     private final ItemRequestValidator itemRequestValidator;
 
@@ -37,23 +45,51 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public Collection<ItemRequestDto> getAllUserRequestsWithResponses(Long userId) {
         userValidator.validateUserId(userId);
-        return itemRequestRepository.findAllByRequester_Id(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtosWithResponses(itemRequestRepository.findAllByRequester_Id(userId));
     }
 
     @Override
-    public Collection<ItemRequestDto> getAllRequestsToResponse(Long userId, Pageable page) {
+    public Collection<ItemRequestDto> getAllRequestsToResponse(Long userId, Pageable page, PageCursor after) {
         userValidator.validateUserId(userId);
-        return itemRequestRepository.findAllByAllOtherUsers(userId, page).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtosWithResponses(
+                itemRequestRepository.findAllByAllOtherUsers(userId, PageCursor.idOrMax(after), page));
     }
 
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
+        return getRequestById(userId, requestId, etag -> false);
+    }
+
+    @Override
+    public ItemRequestDto getRequestById(Long userId, Long requestId, Predicate<String> notModified) {
         userValidator.validateUserId(userId);
         ItemRequest request = itemRequestValidator.validateItemRequestIdAndReturnIt(requestId);
+        EntityTag etag = EntityTag.of(request).and(request.getRequester());
+        if (request.getResponsesToRequest() != null) {
+            request.getResponsesToRequest().forEach(etag::and);
+        }
+        if (notModified.test(etag.build())) {
+            return null;
+        }
         return toItemRequestDto(request);
     }
+
+    /**
+     * Загружает ответы сразу на все запросы страницы одним запросом и группирует их по ID запроса.
+     */
+    private List<ItemRequestDto> toItemRequestDtosWithResponses(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> responsesByRequestId = itemRepository.findAllByRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return requests.stream()
+                .map(request -> toItemRequestDto(request,
+                        responsesByRequestId.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
 }
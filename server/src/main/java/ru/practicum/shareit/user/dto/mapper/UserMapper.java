@@ -26,6 +26,7 @@ public class UserMapper {
                 .id(userDto.getId())
                 .name(userDto.getName() != null ? userDto.getName() : user.getName())
                 .email(userDto.getEmail() != null ? userDto.getEmail() : user.getEmail())
+                .version(user.getVersion())
                 .build();
     }
 }
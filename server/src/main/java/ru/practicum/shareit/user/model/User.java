@@ -18,6 +18,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.Email;
 import java.util.List;
 
@@ -38,10 +39,17 @@ public class User {
     private String name;
     @Email
     private String email;
+    @Version
+    @EqualsAndHashCode.Exclude
+    private Long version;
 
     @OneToMany(mappedBy = "owner")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     List<Item> items;
 
     @OneToMany(mappedBy = "booker", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Booking> bookings;
 }
@@ -1,9 +1,19 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import static ru.practicum.shareit.constants.CacheNames.USER_EXISTS;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Кэшируются только найденные id: новый пользователь не требует сброса кэша.
+     */
+    @Override
+    @Cacheable(cacheNames = USER_EXISTS, unless = "!#result")
+    boolean existsById(Long id);
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 public interface UserService {
 
@@ -10,6 +11,14 @@ public interface UserService {
 
     UserDto getUserById(long id);
 
+    /**
+     * Возвращает null, не собирая DTO, если notModified подтвердил ETag, который уже есть у клиента.
+     * Хранилище в памяти не ведёт версий, поэтому по умолчанию пользователь возвращается всегда.
+     */
+    default UserDto getUserById(long id, Predicate<String> notModified) {
+        return getUserById(id);
+    }
+
     Collection<UserDto> getAllUsers();
 
     UserDto updateUser(UserDto user);
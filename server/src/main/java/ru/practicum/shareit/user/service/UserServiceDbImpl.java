@@ -2,7 +2,17 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.EntityTag;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -10,8 +20,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.validator.UserValidator;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.constants.CacheNames.ITEM_EXISTS;
+import static ru.practicum.shareit.constants.CacheNames.USER_EXISTS;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUser;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUserDto;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUserUpdate;
@@ -22,7 +36,12 @@ import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUserUpdate;
 public class UserServiceDbImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
     private final UserValidator userValidator;
+    private final CacheManager cacheManager;
 
     @Override
     public UserDto createUser(UserDto userDto) {
@@ -32,7 +51,15 @@ public class UserServiceDbImpl implements UserService {
 
     @Override
     public UserDto getUserById(long id) {
+        return getUserById(id, etag -> false);
+    }
+
+    @Override
+    public UserDto getUserById(long id, Predicate<String> notModified) {
         User userFromRepos = userValidator.validateUserIdAndReturnIt(id);
+        if (notModified.test(EntityTag.of(userFromRepos).build())) {
+            return null;
+        }
         return toUserDto(userFromRepos);
     }
 
@@ -44,15 +71,34 @@ public class UserServiceDbImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = USER_EXISTS, key = "#userDto.id")
     public UserDto updateUser(UserDto userDto) {
         User userToUpdate = toUserUpdate(userDto, userValidator.validateUserIdAndReturnIt(userDto.getId()));
         userRepository.save(userToUpdate);
         return toUserDto(userToUpdate);
     }
 
+    /**
+     * Вместе с пользователем каскадно удаляются его вещи и бронирования. Id вещей и подтверждённые бронирования
+     * читаются до удаления, чтобы убрать вещи из кэша существования и поискового индекса, а бронирования —
+     * из календаря занятости.
+     */
     @Override
+    @CacheEvict(cacheNames = USER_EXISTS, key = "#id")
     public void removeUser(long id) {
         User userFromDb = userValidator.validateUserIdAndReturnIt(id);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
+        List<BookingPeriodView> approvedBookings = bookingRepository.findAllPeriodsByUserIdAndStatus(id, BookingStatus.APPROVED);
         userRepository.deleteById(userFromDb.getId());
+        evictItemsExistence(itemIds);
+        itemSearchEngine.onItemsRemoved(itemIds);
+        itemAvailabilityIndex.onBookingsRemoved(approvedBookings);
+    }
+
+    private void evictItemsExistence(List<Long> itemIds) {
+        Cache itemExistsCache = cacheManager.getCache(ITEM_EXISTS);
+        if (itemExistsCache != null) {
+            itemIds.forEach(itemExistsCache::evict);
+        }
     }
 }
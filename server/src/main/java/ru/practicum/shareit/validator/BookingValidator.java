@@ -15,11 +15,12 @@ public class BookingValidator {
 
     private final BookingRepository repository;
 
-    public void validateBookingState(String state) {
-        String result = BookingState.checkState(state);
-        if (result.isEmpty()) {
+    public BookingState validateBookingState(String state) {
+        BookingState bookingState = BookingState.from(state);
+        if (bookingState == null) {
             throw new UnsupportedStatusException(state);
         }
+        return bookingState;
     }
 
     public void validateBookingId(long bookingId) {
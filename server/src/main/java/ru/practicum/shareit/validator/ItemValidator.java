@@ -20,16 +20,18 @@ public class ItemValidator {
         if (itemId < 0) {
             throw new IncorrectDataException("Id не может быть меньше нуля! Запрашиваемый id: " + itemId);
         }
-        repository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException("Вещи с id " + itemId + " не существует!"));
+        if (!repository.existsById(itemId)) {
+            throw new EntityNotFoundException("Вещи с id " + itemId + " не существует!");
+        }
     }
 
+    /**
+     * Существование проверяется через кэш, а вместо загрузки возвращается ссылка: вещь читается из базы,
+     * только если вызывающий код обратится к её полям.
+     */
     public Item validateItemIdAndReturnIt(long itemId) {
-        if (itemId < 0) {
-            throw new IncorrectDataException("Id не может быть меньше нуля! Запрашиваемый id: " + itemId);
-        }
-        return repository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException("Вещи с id " + itemId + " не существует!"));
+        validateItemId(itemId);
+        return repository.getReferenceById(itemId);
     }
 
     public void validateItemData(ItemDto itemDto) {
@@ -19,16 +19,18 @@ public class UserValidator {
         if (userId == -1) {
             throw new IncorrectDataException("Пользователя с header-id " + userId + " не существует!");
         }
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователя с id " + userId + " не существует!"));
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("Пользователя с id " + userId + " не существует!");
+        }
     }
 
+    /**
+     * Существование проверяется через кэш, а вместо загрузки возвращается ссылка: пользователь читается из базы,
+     * только если вызывающий код обратится к его полям.
+     */
     public User validateUserIdAndReturnIt(long userId) {
-        if (userId == -1) {
-            throw new IncorrectDataException("Пользователя с header-id " + userId + " не существует!");
-        }
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователя с id " + userId + " не существует!"));
+        validateUserId(userId);
+        return userRepository.getReferenceById(userId);
     }
 
     public void validateUserData(UserDto userDto) {
@@ -0,0 +1,7 @@
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE requests ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+
+UPDATE bookings SET owner_id = (SELECT items.owner_id FROM items WHERE items.id = bookings.item_id);
+
+ALTER TABLE bookings ADD CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC);
+
+ALTER TABLE comments ADD COLUMN owner_id BIGINT;
+
+UPDATE comments SET owner_id = (SELECT items.owner_id FROM items WHERE items.id = comments.item_id);
+
+ALTER TABLE comments ADD CONSTRAINT fk_comment_owner FOREIGN KEY (owner_id) REFERENCES users ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_comments_owner_created ON comments (owner_id, created);
@@ -0,0 +1,47 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    next_booking_start TIMESTAMP WITHOUT TIME ZONE,
+    waiting_count BIGINT NOT NULL DEFAULT 0,
+    approved_count BIGINT NOT NULL DEFAULT 0,
+    rejected_count BIGINT NOT NULL DEFAULT 0,
+    canceled_count BIGINT NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_summary_items FOREIGN KEY (item_id) REFERENCES items ON DELETE CASCADE,
+    CONSTRAINT fk_summary_last_booking FOREIGN KEY (last_booking_id) REFERENCES bookings ON DELETE SET NULL,
+    CONSTRAINT fk_summary_next_booking FOREIGN KEY (next_booking_id) REFERENCES bookings ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next_start ON item_booking_summary (next_booking_start);
+
+INSERT INTO item_booking_summary (item_id, waiting_count, approved_count, rejected_count, canceled_count)
+SELECT i.id,
+       SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN b.status = 'APPROVED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN b.status = 'CANCELED' THEN 1 ELSE 0 END)
+FROM items i
+LEFT JOIN bookings b ON b.item_id = i.id
+GROUP BY i.id;
+
+UPDATE item_booking_summary SET last_booking_id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = item_booking_summary.item_id AND b.status NOT IN ('REJECTED', 'CANCELED')
+      AND b.start_date < LOCALTIMESTAMP
+    ORDER BY b.start_date DESC, b.id DESC
+    FETCH FIRST 1 ROWS ONLY
+);
+
+UPDATE item_booking_summary SET next_booking_id = (
+    SELECT b.id FROM bookings b
+    WHERE b.item_id = item_booking_summary.item_id AND b.status NOT IN ('REJECTED', 'CANCELED')
+      AND b.start_date > LOCALTIMESTAMP
+    ORDER BY b.start_date, b.id
+    FETCH FIRST 1 ROWS ONLY
+);
+
+UPDATE item_booking_summary SET next_booking_start = (
+    SELECT b.start_date FROM bookings b WHERE b.id = item_booking_summary.next_booking_id
+);
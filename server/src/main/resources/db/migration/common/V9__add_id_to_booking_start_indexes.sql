@@ -0,0 +1,4 @@
+DROP INDEX IF EXISTS idx_bookings_booker_start;
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+DROP INDEX IF EXISTS idx_bookings_owner_start;
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
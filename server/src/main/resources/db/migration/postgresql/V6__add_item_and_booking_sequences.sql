@@ -0,0 +1,7 @@
+-- Hibernate берёт из последовательности сразу 50 id (pooled), поэтому шаг совпадает с allocationSize,
+-- а следующее значение — верхняя граница первого блока после уже выданных identity-колонкой id.
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) FROM items) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50, false);
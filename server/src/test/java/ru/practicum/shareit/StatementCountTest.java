@@ -0,0 +1,251 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.comment.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.validator.UserValidator;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что число SQL-запросов в методах сервисов не растёт с размером страницы (нет N+1).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class StatementCountTest {
+
+    private static final int ITEMS_COUNT = 10;
+
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    UserValidator userValidator;
+
+    long ownerId;
+    long requesterId;
+    long bookerId;
+    long itemId;
+    long bookingId;
+
+    @BeforeEach
+    void addData() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        ownerId = owner.getId();
+        User requester = userRepository.save(User.builder().name("requester").email("requester@mail.ru").build());
+        requesterId = requester.getId();
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("request" + i)
+                    .requester(requester)
+                    .creationDate(now)
+                    .build());
+            User booker = userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@mail.ru").build());
+            bookerId = booker.getId();
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("desc" + i)
+                    .available(true)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            itemId = item.getId();
+            Booking lastBooking = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .ownerId(ownerId)
+                    .booker(booker)
+                    .start(now.minusDays(2))
+                    .end(now.minusDays(1))
+                    .status(BookingStatus.APPROVED)
+                    .build());
+            bookingId = lastBooking.getId();
+            Booking nextBooking = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .ownerId(ownerId)
+                    .booker(booker)
+                    .start(now.plusDays(1))
+                    .end(now.plusDays(2))
+                    .status(BookingStatus.WAITING)
+                    .build());
+            ItemBookingSummary summary = new ItemBookingSummary(itemId);
+            summary.setLastBooking(lastBooking);
+            summary.setNextBooking(nextBooking);
+            itemBookingSummaryRepository.save(summary);
+            commentRepository.save(Comment.builder()
+                    .text("text" + i)
+                    .item(item)
+                    .ownerId(ownerId)
+                    .author(booker)
+                    .created(now)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_whenPageIsFull_thenStatementCountIsConstant() {
+        assertStatementCount(3, () -> bookingService.getAllBookingsByOwnerId(ownerId, "ALL",
+                OffsetPageRequest.of(0, ITEMS_COUNT), null));
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenUserHasBookings_thenStatementCountIsConstant() {
+        assertStatementCount(2, () -> bookingService.getAllBookingsByUserId(bookerId, "ALL",
+                OffsetPageRequest.of(0, ITEMS_COUNT), null));
+    }
+
+    @Test
+    void getBookingInfo_whenBookingExists_thenStatementCountIsConstant() {
+        assertStatementCount(2, () -> bookingService.getBookingInfo(bookingId, ownerId));
+    }
+
+    @Test
+    void getItemsByUserId_whenPageIsFull_thenStatementCountIsConstant() {
+        assertStatementCount(4, () -> itemService.getItemsByUserId(ownerId, OffsetPageRequest.of(0, ITEMS_COUNT), null));
+    }
+
+    @Test
+    void getItemById_whenUserIsOwner_thenStatementCountIsConstant() {
+        assertStatementCount(5, () -> itemService.getItemById(itemId, ownerId));
+    }
+
+    @Test
+    void getAllUserRequestsWithResponses_whenRequestsHaveResponses_thenStatementCountIsConstant() {
+        assertStatementCount(3, () -> itemRequestService.getAllUserRequestsWithResponses(requesterId));
+    }
+
+    @Test
+    void getAllRequestsToResponse_whenPageIsFull_thenStatementCountIsConstant() {
+        assertStatementCount(3, () -> itemRequestService.getAllRequestsToResponse(ownerId,
+                OffsetPageRequest.of(0, ITEMS_COUNT, Sort.by(Sort.Direction.DESC, "id")), null));
+    }
+
+    @Test
+    void createItems_whenBatchIsFull_thenItemsAreInsertedInJdbcBatch() {
+        List<ItemDto> items = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> ItemDto.builder().name("batch" + i).description("desc" + i).available(true).build())
+                .collect(Collectors.toList());
+
+        assertStatementCount(5, () -> {
+            itemService.createItems(items, ownerId);
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void addBookings_whenBatchIsFull_thenBookingsAreInsertedInJdbcBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = IntStream.range(0, ITEMS_COUNT)
+                .mapToObj(i -> BookingDto.builder()
+                        .itemId(itemId)
+                        .start(now.plusDays(10 + i))
+                        .end(now.plusDays(11 + i))
+                        .build())
+                .collect(Collectors.toList());
+
+        // пакет вставки бронирований и пересчёт сводки их вещи: блокировка сводки, чтение последнего, следующего и счётчиков, запись
+        assertStatementCount(10, () -> {
+            bookingService.addBookings(bookings, requesterId);
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    void exportBookingsByOwnerId_whenOwnerHasBookings_thenReadThemWithOneQuery() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        assertStatementCount(2, () -> {
+            try {
+                bookingService.exportBookingsByOwnerId(ownerId).writeTo(outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertEquals(outputStream.toString(StandardCharsets.UTF_8).lines().count(), ITEMS_COUNT * 2L);
+    }
+
+    @Test
+    void validateUserId_whenUserExistenceIsCached_thenNoStatements() {
+        userValidator.validateUserId(ownerId);
+
+        assertStatementCount(0, () -> userValidator.validateUserId(ownerId));
+    }
+
+    @Test
+    void validateUserIdAndReturnIt_whenUserExistenceIsCached_thenNoStatements() {
+        userValidator.validateUserId(ownerId);
+
+        assertStatementCount(0, () -> userValidator.validateUserIdAndReturnIt(ownerId));
+    }
+
+    private void assertStatementCount(long maxStatements, Runnable serviceCall) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        serviceCall.run();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                "Выполнено запросов: " + statements + ", допустимо: " + maxStatements);
+    }
+}
@@ -7,24 +7,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.validator.PageableValidator;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constants.Headers.USER_ID;
 
@@ -62,6 +74,25 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(bookingToCreate), result);
     }
 
+    @SneakyThrows
+    @Test
+    void shouldCreateBookingsTest() {
+        List<BookingDto> bookingsToCreate = List.of(BookingDto.builder().itemId(1L).build());
+        BatchResultDto batchResult = BatchResultDto.of(List.of(BatchRowResultDto.failed(0, "Некорректные даты бронирования!")));
+        when(bookingService.addBookings(anyList(), anyLong())).thenReturn(batchResult);
+
+        String result = mockMvc.perform(post("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(bookingsToCreate))
+                        .header(USER_ID, 1L)
+                        .contentType("application/json"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(batchResult), result);
+    }
+
     @SneakyThrows
     @Test
     void shouldApproveBookingTest() {
@@ -97,7 +128,7 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
         doNothing().when(pageableValidator).checkingPageableParams(1, 1);
 
-        verify(bookingService, times(1)).getAllBookingsByUserId(1L, "ALL", PageRequest.of(1, 1));
+        verify(bookingService, times(1)).getAllBookingsByUserId(1L, "ALL", OffsetPageRequest.of(1, 1), null);
     }
 
     @SneakyThrows
@@ -111,7 +142,23 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
         doNothing().when(pageableValidator).checkingPageableParams(1, 1);
 
-        verify(bookingService, times(1)).getAllBookingsByOwnerId(1L, "ALL", PageRequest.of(1, 1));
+        verify(bookingService, times(1)).getAllBookingsByOwnerId(1L, "ALL", OffsetPageRequest.of(1, 1), null);
+    }
+
+    @SneakyThrows
+    @Test
+    void shouldExportBookingsForOwnerTest() {
+        when(bookingService.exportBookingsByOwnerId(1L))
+                .thenReturn(outputStream -> outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/owner/export").header(USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
     }
 
     @SneakyThrows
@@ -122,6 +169,6 @@ class BookingControllerTest {
                         .header(USER_ID, 1L))
                 .andExpect(status().isOk());
 
-        verify(bookingService, times(1)).getBookingInfo(anyLong(), anyLong());
+        verify(bookingService, times(1)).getBookingInfo(anyLong(), anyLong(), any());
     }
 }
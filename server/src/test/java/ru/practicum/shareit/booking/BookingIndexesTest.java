@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class BookingIndexesTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void migrations_whenApplied_thenHotQueryIndexesExist() {
+        List<?> indexes = entityManager.createNativeQuery("SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES")
+                .getResultList();
+
+        assertTrue(indexes.containsAll(List.of("idx_bookings_booker_start", "idx_bookings_booker_status_start",
+                "idx_bookings_item_start", "idx_items_owner", "idx_comments_item", "idx_requests_requester")), "Индексы не созданы!");
+    }
+
+    @Test
+    void migrations_whenApplied_thenBookerAndOwnerStartIndexesMatchCursorOrder() {
+        assertEquals(indexColumns("idx_bookings_booker_start"), List.of("booker_id asc", "start_date desc", "id desc"));
+        assertEquals(indexColumns("idx_bookings_owner_start"), List.of("owner_id asc", "start_date desc", "id desc"));
+    }
+
+    @Test
+    void migrations_whenApplied_thenBookerStatusAndItemStartIndexesMatchQueryFilters() {
+        assertEquals(indexColumns("idx_bookings_booker_status_start"), List.of("booker_id asc", "status asc", "start_date asc"));
+        assertEquals(indexColumns("idx_bookings_item_start"), List.of("item_id asc", "start_date asc"));
+    }
+
+    @Test
+    void migrations_whenApplied_thenForeignKeyIndexesLeadWithForeignKey() {
+        assertEquals(indexColumns("idx_items_owner"), List.of("owner_id asc"));
+        assertEquals(indexColumns("idx_comments_item"), List.of("item_id asc"));
+        assertEquals(indexColumns("idx_requests_requester"), List.of("requester_id asc"));
+    }
+
+    private List<?> indexColumns(String indexName) {
+        return entityManager.createNativeQuery("SELECT LOWER(COLUMN_NAME || ' ' || ORDERING_SPECIFICATION) " +
+                        "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE LOWER(INDEX_NAME) = ? ORDER BY ORDINAL_POSITION")
+                .setParameter(1, indexName)
+                .getResultList();
+    }
+}
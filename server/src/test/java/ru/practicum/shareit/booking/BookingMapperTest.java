@@ -74,6 +74,7 @@ class BookingMapperTest {
         assertEquals(actual.getStatus(), bookingDto.getStatus());
         assertEquals(actual.getItem().getId(), item.getId());
         assertEquals(actual.getBooker().getId(), booker.getId());
+        assertEquals(actual.getOwnerId(), item.ownerId());
     }
 
     @Test
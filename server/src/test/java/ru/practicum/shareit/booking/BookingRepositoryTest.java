@@ -5,22 +5,33 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingStatusCountView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.bookedBy;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.ownedBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -41,6 +52,9 @@ class BookingRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    TestEntityManager entityManager;
+
     @BeforeEach
     public void shouldAddRequests() {
         LocalDateTime timeStamp = LocalDateTime.now();
@@ -89,6 +103,7 @@ class BookingRepositoryTest {
                 .build());
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .booker(booker)
                 .start(timeStamp)
                 .end(timeStamp)
@@ -98,27 +113,32 @@ class BookingRepositoryTest {
 
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .end(timeStamp.minusDays(1))
                 .start(timeStamp.minusDays(2))
                 .build());
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .start(timeStamp.plusDays(1))
                 .end(timeStamp.plusDays(2))
                 .build());
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .start(timeStamp.minusDays(1))
                 .end(timeStamp.plusDays(2))
                 .build());
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .start(timeStamp)
                 .end(timeStamp)
                 .status(BookingStatus.REJECTED)
                 .build());
         bookingRepository.save(Booking.builder()
                 .item(item)
+                .ownerId(ownerId)
                 .start(timeStamp)
                 .end(timeStamp)
                 .status(BookingStatus.WAITING)
@@ -126,19 +146,86 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerId_whenBookerBookingsEqualsFive_thenReturnListOfFiveBookings() {
-        List<Booking> bookerBookings = bookingRepository.findAllByBooker_Id(bookerId, PAGE_FOR_BOOKINGS);
+    void findPage_whenBookerBookingsEqualsFive_thenReturnListOfFiveBookings() {
+        List<Booking> bookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.ALL, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(bookerBookings.size(), 5);
     }
 
     @Test
-    void findAllByItemOwnerId_whenOwnerHasSixBookings_returnListOfSixBookings() {
-        List<Booking> ownerBookings = bookingRepository.findAllByItem_Owner_Id(ownerId);
+    void findPage_whenCursorFromFirstPage_thenReturnNextBookingsWithoutOverlap() {
+        entityManager.flush();
+        entityManager.clear();
+        Pageable firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id"));
+        List<Booking> firstBookings = bookingRepository.findPage(bookedBy(bookerId).and(after(null)), firstPage);
+        Booking last = firstBookings.get(firstBookings.size() - 1);
+
+        List<Booking> nextBookings = bookingRepository.findPage(
+                bookedBy(bookerId).and(after(PageCursor.of(last.getStart(), last.getId()))), firstPage);
+
+        assertEquals(nextBookings.size(), 2);
+        nextBookings.forEach(booking -> assertFalse(firstBookings.contains(booking)));
+        assertTrue(nextBookings.get(0).getStart().isBefore(last.getStart())
+                || nextBookings.get(0).getStart().isEqual(last.getStart()) && nextBookings.get(0).getId() < last.getId());
+    }
+
+    @Test
+    void findAllByOwnerId_whenOwnerHasSixBookings_returnListOfSixBookings() {
+        List<Booking> ownerBookings = bookingRepository.findAllByOwnerId(ownerId);
 
         assertEquals(ownerBookings.size(), 6);
     }
 
+    @Test
+    void findFirstByItemIdAndStatusNotInAndStartBefore_whenItemHasActualPastBookings_thenReturnLatestOne() {
+        Optional<Booking> lastBooking = bookingRepository.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(itemId,
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), LocalDateTime.now());
+
+        assertTrue(lastBooking.isPresent());
+        assertEquals(lastBooking.get().getStatus(), BookingStatus.WAITING);
+    }
+
+    @Test
+    void findFirstByItemIdAndStatusNotInAndStartAfter_whenItemHasNoActualFutureBookings_thenReturnEmpty() {
+        Optional<Booking> nextBooking = bookingRepository.findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAscIdAsc(itemId,
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), LocalDateTime.now());
+
+        assertTrue(nextBooking.isEmpty());
+    }
+
+    @Test
+    void findLastBookingsByItemIds_whenItemHasActualPastBookings_thenReturnLatestOne() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(itemId),
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), now);
+        Optional<Booking> lastBooking = bookingRepository.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(itemId,
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), now);
+
+        assertEquals(lastBookings.size(), 1);
+        assertEquals(lastBookings.get(0).getStatus(), BookingStatus.WAITING);
+        assertEquals(lastBookings.get(0).getId(), lastBooking.orElseThrow().getId());
+    }
+
+    @Test
+    void findNextBookingsByItemIds_whenItemHasNoActualFutureBookings_thenReturnEmptyList() {
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(itemId),
+                List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), LocalDateTime.now());
+
+        assertTrue(nextBookings.isEmpty());
+    }
+
+    @Test
+    void countByItemIdsAndStatus_whenItemHasTwoWaitingBookings_thenCountThemByStatus() {
+        List<BookingStatusCountView> counts = bookingRepository.countByItemIdsAndStatus(List.of(itemId));
+
+        BookingStatusCountView waiting = counts.stream()
+                .filter(count -> count.getStatus() == BookingStatus.WAITING)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(waiting.getItemId(), itemId);
+        assertEquals(waiting.getCount(), 2L);
+    }
+
     @Test
     void findAllByUserIdAndItemIdAndEndDateIsPassed_whenBookerHasOneItemWithEndDatePassed_thenReturnListOfOneBooking() {
         List<Booking> ownerBookings = bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(bookerId, itemId, LocalDateTime.now());
@@ -147,78 +234,78 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerItems_whenOwnerHasSixBookings_returnListOfSixBookings() {
-        List<Booking> itemsBookings = bookingRepository.findAllByOwnerItems(List.of(itemId), PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasSixBookings_returnListOfSixBookings() {
+        List<Booking> itemsBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.ALL, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(itemsBookings.size(), 6);
     }
 
     @Test
-    void findAllByOwnerItemsAndWaitingStatus_whenOwnerHasTwoBookingWithWaitingStatus_thenReturnListOfTwoBookings() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndWaitingStatus(List.of(itemId), BookingStatus.WAITING, PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasTwoBookingWithWaitingStatus_thenReturnListOfTwoBookings() {
+        List<Booking> ownerBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.WAITING, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 2);
     }
 
     @Test
-    void findAllByOwnerItemsAndRejectedStatus_whenOwnerHasOneBookingWithRejectedStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndRejectedStatus(List.of(itemId), List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasOneBookingWithRejectedStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.REJECTED, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
     }
 
     @Test
-    void findAllByOwnerItemsAndCurrentStatus_whenOwnerHasOneBookingWithCurrentStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndCurrentStatus(List.of(itemId), LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasOneBookingWithCurrentStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.CURRENT, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
     }
 
     @Test
-    void findAllByOwnerItemsAndFutureStatus_whenOwnerHasOneBookingWithFutureStatus_thenReturnListOfOneBooking() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndFutureStatus(List.of(itemId), LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasOneBookingWithFutureStatus_thenReturnListOfOneBooking() {
+        List<Booking> ownerBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.FUTURE, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 1);
     }
 
     @Test
-    void findAllByOwnerItemsAndPastStatus_whenOwnerHasFourBookingWithPastStatus_thenReturnListOfFourBookings() {
-        List<Booking> ownerBookings = bookingRepository.findAllByOwnerItemsAndPastStatus(List.of(itemId), LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenOwnerHasFourBookingWithPastStatus_thenReturnListOfFourBookings() {
+        List<Booking> ownerBookings = bookingRepository.findPage(ownedBy(ownerId).and(inState(BookingState.PAST, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(ownerBookings.size(), 4);
     }
 
     @Test
-    void findAllByBookerIdAndWaitingStatus_whenThereIsOneWaitingStatusBooking_thenReturnListOfOneBooking() {
-        List<Booking> pastBookerBookings = bookingRepository.findAllByBookerIdAndWaitingStatus(bookerId, BookingStatus.WAITING, PAGE_FOR_BOOKINGS);
+    void findPage_whenThereIsOneWaitingStatusBooking_thenReturnListOfOneBooking() {
+        List<Booking> pastBookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.WAITING, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(pastBookerBookings.size(), 1);
     }
 
     @Test
-    void findAllByBookerIdAndRejectedStatus_whenThereIsOneRejectedStatusBooking_thenReturnListOfOneBooking() {
-        List<Booking> pastBookerBookings = bookingRepository.findAllByBookerIdAndRejectedStatus(bookerId, List.of(BookingStatus.REJECTED, BookingStatus.CANCELED), PAGE_FOR_BOOKINGS);
+    void findPage_whenThereIsOneRejectedStatusBooking_thenReturnListOfOneBooking() {
+        List<Booking> pastBookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.REJECTED, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(pastBookerBookings.size(), 1);
     }
 
     @Test
-    void findAllByBookerIdAndCurrentStatus_whenThereIsOneCurrentStatusBooking_thenReturnListOfOneBooking() {
-        List<Booking> pastBookerBookings = bookingRepository.findAllByBookerIdAndCurrentStatus(bookerId, LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenThereIsOneCurrentStatusBooking_thenReturnListOfOneBooking() {
+        List<Booking> pastBookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.CURRENT, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(pastBookerBookings.size(), 1);
     }
 
     @Test
-    void findAllByBookerIdAndFutureStatus_whenThereIsOneFutureStatusBooking_thenReturnListOfOneBooking() {
-        List<Booking> pastBookerBookings = bookingRepository.findAllByBookerIdAndFutureStatus(bookerId, LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenThereIsOneFutureStatusBooking_thenReturnListOfOneBooking() {
+        List<Booking> pastBookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.FUTURE, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(pastBookerBookings.size(), 1);
     }
 
     @Test
-    void findAllByBookerIdAndPastStatus_whenThereAreThreePastStatusBookings_thenReturnListOfThreeBookings() {
-        List<Booking> pastBookerBookings = bookingRepository.findAllByBookerIdAndPastStatus(bookerId, LocalDateTime.now(), PAGE_FOR_BOOKINGS);
+    void findPage_whenThereAreThreePastStatusBookings_thenReturnListOfThreeBookings() {
+        List<Booking> pastBookerBookings = bookingRepository.findPage(bookedBy(bookerId).and(inState(BookingState.PAST, LocalDateTime.now())), PAGE_FOR_BOOKINGS);
 
         assertEquals(pastBookerBookings.size(), 3);
     }
@@ -6,17 +6,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
+import ru.practicum.shareit.export.NdjsonExporter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -26,15 +37,18 @@ import ru.practicum.shareit.validator.UserValidator;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -65,6 +79,18 @@ class BookingServiceImplTest {
     @Mock
     BookingValidator bookingValidator;
 
+    @Mock
+    ItemAvailabilityIndex itemAvailabilityIndex;
+
+    @Mock
+    ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+
+    @Mock
+    NdjsonExporter ndjsonExporter;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
     @InjectMocks
     BookingServiceImpl bookingService;
 
@@ -107,6 +133,19 @@ class BookingServiceImplTest {
         assertEquals(expectedBooking, toBookingDto(booking));
     }
 
+    @Test
+    void addBooking_whenSummaryRefreshFails_thenRollbackAndSkipAvailabilityIndex() {
+        when(userValidator.validateUserIdAndReturnIt(anyLong())).thenReturn(owner);
+        when(itemValidator.validateItemIdAndReturnIt(anyLong())).thenReturn(ownerItem);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        doThrow(new CannotAcquireLockException("Сводка заблокирована")).when(itemBookingSummaryUpdater).onBookingSaved(booking);
+
+        assertThrows(CannotAcquireLockException.class, () -> bookingService.addBooking(toBookingDto(booking), 2L));
+
+        verify(transactionManager).rollback(any());
+        verify(itemAvailabilityIndex, never()).onBookingSaved(any(Booking.class));
+    }
+
     @Test
     void addBooking_whenItemOwnerIdEqualsBookerId_thenThrowEntityNotFoundException() {
         when(userValidator.validateUserIdAndReturnIt(anyLong())).thenReturn(owner);
@@ -177,6 +216,51 @@ class BookingServiceImplTest {
         assertEquals(entityNotFoundException.getMessage(), "Вещь не найдена!");
     }
 
+    @Test
+    void addBookings_whenSomeRowsAreIncorrect_thenSaveOthersAndReturnResultPerRow() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto booking = BookingDto.builder().itemId(1L).start(now.plusDays(1)).end(now.plusDays(2)).build();
+        BookingDto bookingOfUnknownItem = BookingDto.builder().itemId(2L).start(now.plusDays(1)).end(now.plusDays(2)).build();
+        BookingDto overlappingBooking = BookingDto.builder().itemId(1L).start(now.plusDays(3)).end(now.plusDays(5)).build();
+        BookingDto pastBooking = BookingDto.builder().itemId(1L).start(now.minusDays(2)).end(now.minusDays(1)).build();
+        when(userValidator.validateUserIdAndReturnIt(2L)).thenReturn(new User());
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(ownerItem));
+        BookingPeriodView approved = mock(BookingPeriodView.class);
+        when(approved.getItemId()).thenReturn(1L);
+        when(approved.getStartDate()).thenReturn(now.plusDays(4));
+        when(approved.getEndDate()).thenReturn(now.plusDays(6));
+        when(bookingRepository.findPeriodsByItemIdsAndStatusOverlapping(Set.of(1L), BookingStatus.APPROVED,
+                booking.getStart(), overlappingBooking.getEnd())).thenReturn(List.of(approved));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(savedBooking -> savedBooking.setId(10L));
+            return bookings;
+        });
+
+        BatchResultDto result = bookingService.addBookings(
+                List.of(booking, bookingOfUnknownItem, overlappingBooking, pastBooking), 2L);
+
+        assertEquals(result.getCreated(), 1);
+        assertEquals(result.getFailed(), 3);
+        assertEquals(result.getResults(), List.of(
+                BatchRowResultDto.created(0, 10L),
+                BatchRowResultDto.failed(1, "Вещи с id 2 не существует!"),
+                BatchRowResultDto.failed(2, "Вещь уже забронирована на эти даты!"),
+                BatchRowResultDto.failed(3, "Некорректные даты бронирования!")));
+        verify(itemAvailabilityIndex, times(1)).onBookingSaved(any(Booking.class));
+    }
+
+    @Test
+    void exportBookingsByUserId_whenUserNotFound_thenThrowBeforeStreaming() {
+        doThrow(new EntityNotFoundException("Пользователь не найден!")).when(userValidator).validateUserId(2L);
+
+        EntityNotFoundException entityNotFoundException = assertThrows(EntityNotFoundException.class,
+                () -> bookingService.exportBookingsByUserId(2L));
+
+        assertEquals(entityNotFoundException.getMessage(), "Пользователь не найден!");
+        verify(ndjsonExporter, never()).export(any(), any());
+    }
+
     @Test
     void approveBooking_whenUserAndItemExistAndAllDataCorrect_thenReturnBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
@@ -186,6 +270,7 @@ class BookingServiceImplTest {
 
         assertEquals(actualBooking.getId(), booking.getId());
         assertEquals(actualBooking.getStart(), booking.getStart());
+        verify(itemAvailabilityIndex, times(1)).onBookingSaved(any(Booking.class));
     }
 
     @Test
@@ -244,6 +329,84 @@ class BookingServiceImplTest {
         assertEquals(entityNotFoundException.getMessage(), "Бронирование не найдено!");
     }
 
+    @Test
+    void addBooking_whenApprovedBookingOverlaps_thenThrowBookingConflictException() {
+        when(userValidator.validateUserIdAndReturnIt(anyLong())).thenReturn(owner);
+        when(itemValidator.validateItemIdAndReturnIt(anyLong())).thenReturn(ownerItem);
+        when(bookingRepository.existsApprovedOverlapping(ownerItem.getId(), 0L, BookingStatus.APPROVED,
+                booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.addBooking(toBookingDto(booking), 2L));
+
+        assertEquals(exception.getMessage(), "Вещь уже забронирована на эти даты!");
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void approveBooking_whenApprovedBookingOverlaps_thenThrowBookingConflictException() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(bookingValidator.validateBookingIdAndReturnIt(anyLong())).thenReturn(booking);
+        when(bookingRepository.existsApprovedOverlapping(ownerItem.getId(), booking.getId(), BookingStatus.APPROVED,
+                booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.approveBooking(1L, 1L, "true"));
+
+        assertEquals(exception.getMessage(), "Вещь уже забронирована на эти даты!");
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemAvailabilityIndex, never()).onBookingSaved(any(Booking.class));
+    }
+
+    @Test
+    void approveBooking_whenVersionConflictOnce_thenRereadAndReturnBooking() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(bookingValidator.validateBookingIdAndReturnIt(anyLong())).thenReturn(booking);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .thenReturn(booking);
+
+        BookingDto actualBooking = bookingService.approveBooking(1L, 1L, "true");
+
+        assertEquals(actualBooking.getStatus(), BookingStatus.APPROVED);
+        verify(bookingValidator, times(2)).validateBookingIdAndReturnIt(1L);
+    }
+
+    @Test
+    void approveBooking_whenConcurrentRequestApprovedFirst_thenThrowIncorrectDataException() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        Booking approvedBooking = Booking.builder()
+                .id(booking.getId())
+                .status(BookingStatus.APPROVED)
+                .item(ownerItem)
+                .booker(booking.getBooker())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+        when(bookingValidator.validateBookingIdAndReturnIt(anyLong())).thenReturn(booking, approvedBooking);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        IncorrectDataException exception = assertThrows(IncorrectDataException.class,
+                () -> bookingService.approveBooking(1L, 1L, "true"));
+
+        assertEquals(exception.getMessage(), "Статус подтверждён!");
+    }
+
+    @Test
+    void approveBooking_whenVersionConflictRepeats_thenThrowBookingConflictException() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(bookingValidator.validateBookingIdAndReturnIt(anyLong())).thenReturn(booking);
+        when(bookingRepository.save(any(Booking.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()));
+
+        BookingConflictException exception = assertThrows(BookingConflictException.class,
+                () -> bookingService.approveBooking(1L, 1L, "true"));
+
+        assertEquals(exception.getMessage(), "Бронирование 1 одновременно изменяется другим запросом!");
+        verify(bookingRepository, times(3)).save(any(Booking.class));
+    }
+
     @Test
     void getBookingInfo_whenUserIsOwnerAndBookingExist_thenReturnBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
@@ -280,108 +443,84 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_whenUserAndStateExist_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBookerIdAndCurrentStatus(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.CURRENT);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "CURRENT", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "CURRENT", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByBookerIdAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBooker_Id(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByUserId_whenUserAndStateExistAndWaiting_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBookerIdAndWaitingStatus(anyLong(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.WAITING);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "WAITING", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "WAITING", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
 
-        verify(bookingRepository, times(0)).findAllByBookerIdAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBooker_Id(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByUserId_whenUserAndStateExistAndFuture_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBookerIdAndFutureStatus(anyLong(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.FUTURE);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "FUTURE", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "FUTURE", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
 
-        verify(bookingRepository, times(0)).findAllByBookerIdAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBooker_Id(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByUserId_whenUserAndStateExistAndRejected_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBookerIdAndRejectedStatus(anyLong(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.REJECTED);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "REJECTED", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "REJECTED", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
 
-        verify(bookingRepository, times(0)).findAllByBookerIdAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBooker_Id(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByUserId_whenUserAndStateExistAndPast_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBookerIdAndPastStatus(anyLong(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.PAST);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "PAST", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "PAST", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
 
-        verify(bookingRepository, times(0)).findAllByBookerIdAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBooker_Id(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByUserId_whenUserAndStateExistAndAll_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(bookingRepository.findAllByBooker_Id(anyLong(), any()))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.ALL);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "ALL", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByUserId(1L, "ALL", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
 
-        verify(bookingRepository, times(0)).findAllByBookerIdAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByBookerIdAndPastStatus(any(), any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
@@ -389,7 +528,7 @@ class BookingServiceImplTest {
         doThrow(new EntityNotFoundException("Пользователь не найден!")).when(userValidator).validateUserId(anyLong());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> bookingService.getAllBookingsByUserId(1L, "CURRENT", PAGE_FOR_BOOKINGS));
+                () -> bookingService.getAllBookingsByUserId(1L, "CURRENT", PAGE_FOR_BOOKINGS, null));
 
         assertEquals(exception.getMessage(), "Пользователь не найден!");
     }
@@ -401,7 +540,7 @@ class BookingServiceImplTest {
                 .when(bookingValidator).validateBookingState(anyString());
 
         UnsupportedStatusException exception = assertThrows(UnsupportedStatusException.class,
-                () -> bookingService.getAllBookingsByUserId(1L, "NOT", PAGE_FOR_BOOKINGS));
+                () -> bookingService.getAllBookingsByUserId(1L, "NOT", PAGE_FOR_BOOKINGS, null));
 
         assertEquals(exception.getMessage(), "статус");
     }
@@ -409,109 +548,85 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExist_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndCurrentStatus(anyList(), any(LocalDateTime.class), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.CURRENT);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "CURRENT", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "CURRENT", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistWaiting_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndWaitingStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.WAITING);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "WAITING", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "WAITING", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistFuture_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndFutureStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.FUTURE);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "FUTURE", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "FUTURE", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistRejected_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndRejectedStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.REJECTED);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "REJECTED", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "REJECTED", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistPast_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItemsAndPastStatus(anyList(), any(), any(Pageable.class)))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.PAST);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "PAST", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "PAST", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItems(any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getAllBookingsByOwnerId_whenUserAndBookingAndItemExistAll_thenReturnListOfBooking() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        doNothing().when(bookingValidator).validateBookingState(anyString());
-        when(itemRepository.findByOwner_Id_WithoutPageable(anyLong())).thenReturn(List.of(ownerItem));
-        when(bookingRepository.findAllByOwnerItems(any(), any()))
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.ALL);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
-        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "ALL", PAGE_FOR_BOOKINGS);
+        List<BookingDto> actualBookings = bookingService.getAllBookingsByOwnerId(1L, "ALL", PAGE_FOR_BOOKINGS, null);
 
         assertEquals(actualBookings.size(), 1);
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndCurrentStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndWaitingStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndFutureStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndRejectedStatus(any(), any(), any());
-        verify(bookingRepository, times(0)).findAllByOwnerItemsAndPastStatus(any(), any(), any());
+        verify(bookingRepository).findPage(any(), any(Pageable.class));
     }
 
     @Test
@@ -519,7 +634,7 @@ class BookingServiceImplTest {
         doThrow(new EntityNotFoundException("Пользователь не найден!")).when(userValidator).validateUserId(anyLong());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
-                () -> bookingService.getAllBookingsByOwnerId(1L, "CURRENT", PAGE_FOR_BOOKINGS));
+                () -> bookingService.getAllBookingsByOwnerId(1L, "CURRENT", PAGE_FOR_BOOKINGS, null));
 
         assertEquals(exception.getMessage(), "Пользователь не найден!");
     }
@@ -531,8 +646,19 @@ class BookingServiceImplTest {
                 .when(bookingValidator).validateBookingState(anyString());
 
         UnsupportedStatusException exception = assertThrows(UnsupportedStatusException.class,
-                () -> bookingService.getAllBookingsByOwnerId(1L, "NOT", PAGE_FOR_BOOKINGS));
+                () -> bookingService.getAllBookingsByOwnerId(1L, "NOT", PAGE_FOR_BOOKINGS, null));
 
         assertEquals(exception.getMessage(), "статус");
     }
+
+    @Test
+    void getAllBookingsByOwnerId_whenOwnerHasNoItems_thenThrowIncorrectDataException() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(bookingValidator.validateBookingState(anyString())).thenReturn(BookingState.ALL);
+        when(itemRepository.existsByOwner_Id(anyLong())).thenReturn(false);
+
+        assertThrows(IncorrectDataException.class,
+                () -> bookingService.getAllBookingsByOwnerId(1L, "ALL", PAGE_FOR_BOOKINGS, null));
+        verify(bookingRepository, never()).findPage(any(), any());
+    }
 }
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    BookingRepository bookingRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    ItemAvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void addBookings() {
+        availabilityIndex.onBookingSaved(booking(1L, 1L, 1, 3, BookingStatus.APPROVED));
+        availabilityIndex.onBookingSaved(booking(2L, 1L, 5, 6, BookingStatus.APPROVED));
+        availabilityIndex.onBookingSaved(booking(3L, 1L, 0, 10, BookingStatus.WAITING));
+        availabilityIndex.onBookingSaved(booking(4L, 2L, 2, 4, BookingStatus.APPROVED));
+    }
+
+    @Test
+    void findBusyPeriods_whenPeriodOverlapsApprovedBookings_thenReturnThemInStartOrder() {
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY, DAY.plusDays(10)),
+                List.of(period(1, 3), period(5, 6)));
+    }
+
+    @Test
+    void findBusyPeriods_whenPeriodTouchesBookingBoundaries_thenBookingIsNotBusy() {
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY.plusDays(3), DAY.plusDays(5)), List.of());
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY.plusDays(2), DAY.plusDays(5)), List.of(period(1, 3)));
+    }
+
+    @Test
+    void findBusyPeriods_whenLongBookingStartsEarlier_thenItIsFoundInsideLaterPeriod() {
+        availabilityIndex.onBookingSaved(booking(5L, 1L, -5, 20, BookingStatus.APPROVED));
+
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY.plusDays(7), DAY.plusDays(8)), List.of(period(-5, 20)));
+    }
+
+    @Test
+    void onBookingSaved_whenApprovedBookingRejected_thenRemoveItFromCalendar() {
+        availabilityIndex.onBookingSaved(booking(1L, 1L, 1, 3, BookingStatus.REJECTED));
+
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY, DAY.plusDays(10)), List.of(period(5, 6)));
+    }
+
+    @Test
+    void onBookingSaved_whenWaitingBookingApproved_thenAddItToCalendar() {
+        availabilityIndex.onBookingSaved(booking(3L, 1L, 0, 10, BookingStatus.APPROVED));
+
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY, DAY.plusDays(10)),
+                List.of(period(0, 10), period(1, 3), period(5, 6)));
+    }
+
+    @Test
+    void removeEndedBy_whenBookingsEnded_thenKeepOnlyUnfinishedOnes() {
+        availabilityIndex.onBookingSaved(booking(5L, 1L, -5, 20, BookingStatus.APPROVED));
+
+        availabilityIndex.removeEndedBy(DAY.plusDays(4));
+
+        assertEquals(availabilityIndex.findBusyPeriods(1L, DAY.minusDays(10), DAY.plusDays(30)),
+                List.of(period(-5, 20), period(5, 6)));
+        assertTrue(availabilityIndex.findBusyPeriods(2L, DAY, DAY.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    void onBookingsRemoved_whenBookingsDeletedWithUser_thenRemoveThemFromCalendar() {
+        BookingPeriodView removed = mock(BookingPeriodView.class);
+        when(removed.getId()).thenReturn(4L);
+        when(removed.getItemId()).thenReturn(2L);
+        when(removed.getStartDate()).thenReturn(DAY.plusDays(2));
+
+        availabilityIndex.onBookingsRemoved(List.of(removed));
+
+        assertTrue(availabilityIndex.findBusyPeriods(2L, DAY, DAY.plusDays(10)).isEmpty());
+    }
+
+    @Test
+    void findBusyPeriods_whenItemHasNoApprovedBookings_thenReturnEmptyList() {
+        assertTrue(availabilityIndex.findBusyPeriods(3L, DAY, DAY.plusDays(10)).isEmpty());
+    }
+
+    private static Booking booking(long id, long itemId, int startDay, int endDay, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .start(DAY.plusDays(startDay))
+                .end(DAY.plusDays(endDay))
+                .status(status)
+                .build();
+    }
+
+    private static AvailabilityPeriodDto period(int startDay, int endDay) {
+        return new AvailabilityPeriodDto(DAY.plusDays(startDay), DAY.plusDays(endDay));
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.BookingStatusCountView;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryUpdaterTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now();
+
+    @Mock
+    BookingRepository bookingRepository;
+    @Mock
+    ItemBookingSummaryRepository summaryRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Captor
+    ArgumentCaptor<Iterable<ItemBookingSummary>> summariesCaptor;
+
+    @InjectMocks
+    ItemBookingSummaryUpdater summaryUpdater;
+
+    @Test
+    void onItemsCreated_whenItemsSaved_thenCreateEmptySummaries() {
+        summaryUpdater.onItemsCreated(List.of(Item.builder().id(1L).build(), Item.builder().id(2L).build()));
+
+        verify(summaryRepository).saveAll(summariesCaptor.capture());
+        List<ItemBookingSummary> summaries = new ArrayList<>();
+        summariesCaptor.getValue().forEach(summaries::add);
+        assertEquals(summaries.size(), 2);
+        assertNull(summaries.get(0).getNextBooking());
+    }
+
+    @Test
+    void onBookingSaved_whenSummaryExists_thenLockItAndSetLastAndNextBookings() {
+        Booking last = booking(1L, -2, BookingStatus.APPROVED);
+        Booking next = booking(2L, 3, BookingStatus.WAITING);
+        ItemBookingSummary existing = new ItemBookingSummary(1L);
+        when(summaryRepository.findAllByItemIdInForUpdate(List.of(1L))).thenReturn(List.of(existing));
+        when(bookingRepository.findLastBookingsByItemIds(eq(List.of(1L)), anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextBookingsByItemIds(eq(List.of(1L)), anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(next));
+
+        summaryUpdater.onBookingSaved(next);
+
+        verify(summaryRepository).saveAll(summariesCaptor.capture());
+        ItemBookingSummary summary = summariesCaptor.getValue().iterator().next();
+        assertEquals(summary.getItemId(), 1L);
+        assertEquals(summary.getLastBooking(), last);
+        assertEquals(summary.getNextBooking(), next);
+        assertEquals(summary.getNextBookingStart(), next.getStart());
+    }
+
+    @Test
+    void onBookingSaved_whenItemHasBookings_thenRecountThemByStatus() {
+        ItemBookingSummary existing = new ItemBookingSummary(1L);
+        existing.setWaitingCount(1L);
+        when(summaryRepository.findAllByItemIdInForUpdate(List.of(1L))).thenReturn(List.of(existing));
+        when(bookingRepository.countByItemIdsAndStatus(List.of(1L)))
+                .thenReturn(List.of(count(BookingStatus.APPROVED, 1L), count(BookingStatus.REJECTED, 2L)));
+
+        summaryUpdater.onBookingSaved(booking(2L, 3, BookingStatus.REJECTED));
+
+        verify(summaryRepository).saveAll(summariesCaptor.capture());
+        ItemBookingSummary summary = summariesCaptor.getValue().iterator().next();
+        assertEquals(summary.getWaitingCount(), 0L);
+        assertEquals(summary.getApprovedCount(), 1L);
+        assertEquals(summary.getRejectedCount(), 2L);
+        assertEquals(summary.getCounts().get(BookingStatus.CANCELED), 0L);
+    }
+
+    @Test
+    void onBookingSaved_whenNextBookingRejected_thenExistingSummaryLosesIt() {
+        ItemBookingSummary existing = new ItemBookingSummary(1L);
+        existing.setNextBooking(booking(2L, 3, BookingStatus.WAITING));
+        when(summaryRepository.findAllByItemIdInForUpdate(List.of(1L))).thenReturn(List.of(existing));
+
+        summaryUpdater.onBookingSaved(booking(2L, 3, BookingStatus.REJECTED));
+
+        verify(summaryRepository).saveAll(summariesCaptor.capture());
+        ItemBookingSummary summary = summariesCaptor.getValue().iterator().next();
+        assertNull(summary.getNextBooking());
+        assertNull(summary.getNextBookingStart());
+    }
+
+    @Test
+    void onBookingSaved_whenItemHasNoSummary_thenCreateItBeforeLocking() {
+        ItemBookingSummary created = new ItemBookingSummary(1L);
+        when(summaryRepository.findAllByItemIdInForUpdate(List.of(1L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(created));
+
+        summaryUpdater.onBookingSaved(booking(2L, 3, BookingStatus.WAITING));
+
+        verify(summaryRepository, times(2)).findAllByItemIdInForUpdate(List.of(1L));
+        verify(summaryRepository).saveAll(List.of(created));
+        verify(summaryRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void rollForward_whenNextBookingStarted_thenRecalculateItsItem() {
+        when(summaryRepository.findItemIdsWithStartedNextBooking(any(LocalDateTime.class))).thenReturn(List.of(1L));
+        when(summaryRepository.findAllByItemIdInForUpdate(List.of(1L))).thenReturn(List.of(new ItemBookingSummary(1L)));
+
+        summaryUpdater.rollForward();
+
+        verify(summaryRepository).saveAll(any());
+    }
+
+    @Test
+    void rollForward_whenNoNextBookingStarted_thenDoNothing() {
+        when(summaryRepository.findItemIdsWithStartedNextBooking(any(LocalDateTime.class))).thenReturn(List.of());
+
+        summaryUpdater.rollForward();
+
+        verify(summaryRepository, never()).findAllByItemIdInForUpdate(any());
+    }
+
+    @Test
+    void isActualAt_whenNextBookingStarted_thenSummaryIsNotActual() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setNextBooking(booking(2L, 1, BookingStatus.WAITING));
+
+        assertTrue(summary.isActualAt(DAY));
+        assertFalse(summary.isActualAt(DAY.plusDays(1)));
+    }
+
+    private static BookingStatusCountView count(BookingStatus status, long count) {
+        return new BookingStatusCountView() {
+            @Override
+            public Long getItemId() {
+                return 1L;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static Booking booking(long id, int startDay, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(1L).build())
+                .start(DAY.plusDays(startDay))
+                .end(DAY.plusDays(startDay + 1))
+                .status(status)
+                .build();
+    }
+}
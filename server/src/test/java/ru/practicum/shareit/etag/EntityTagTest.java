@@ -0,0 +1,42 @@
+package ru.practicum.shareit.etag;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityTagTest {
+
+    @Test
+    void build_whenSameEntitiesAndVersions_thenReturnSameQuotedTag() {
+        User user = User.builder().id(1L).version(3L).build();
+
+        String etag = EntityTag.of(user).build();
+
+        assertEquals(EntityTag.of(User.builder().id(1L).version(3L).build()).build(), etag);
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    void build_whenRelatedEntityVersionChanged_thenReturnDifferentTag() {
+        Item item = Item.builder().id(1L).version(0L).build();
+        User booker = User.builder().id(2L).version(0L).build();
+        Booking booking = Booking.builder().id(3L).version(0L).item(item).booker(booker).build();
+        String etag = EntityTag.of(booking).and(item).and(booker).build();
+
+        booker.setVersion(1L);
+
+        assertNotEquals(EntityTag.of(booking).and(item).and(booker).build(), etag);
+    }
+
+    @Test
+    void build_whenAbsentEntityInOtherPosition_thenReturnDifferentTag() {
+        Booking booking = Booking.builder().id(1L).version(0L).build();
+
+        assertNotEquals(EntityTag.of((Item) null).and(booking).build(), EntityTag.of(booking).and((Item) null).build());
+    }
+}
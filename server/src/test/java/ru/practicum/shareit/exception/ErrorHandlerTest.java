@@ -25,6 +25,13 @@ public class ErrorHandlerTest {
         assertEquals("Адрес эл. почты уже зарегистрирован Адрес эл. почты уже зарегистрирован", result);
     }
 
+    @Test
+    public void testHandleBookingConflictException() {
+        BookingConflictException exception = new BookingConflictException("Вещь уже забронирована на эти даты!");
+        String result = errorHandler.handleBookingConflictException(exception);
+        assertEquals("Ошибка! Конфликт бронирований: Вещь уже забронирована на эти даты!", result);
+    }
+
     @Test
     public void testHandleEmptyFieldException() {
         EmptyFieldException exception = new EmptyFieldException("Пустое поле!");
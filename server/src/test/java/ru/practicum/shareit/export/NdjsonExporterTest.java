@@ -0,0 +1,69 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class NdjsonExporterTest {
+
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    NdjsonExporter exporter;
+
+    @BeforeEach
+    void createExporter() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exporter = new NdjsonExporter(objectMapper, entityManager, transactionManager);
+    }
+
+    @SneakyThrows
+    @Test
+    void export_whenStreamHasRows_thenWriteOneJsonLinePerRow() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exporter.export(() -> Stream.of(1, 2), day -> new AvailabilityPeriodDto(start.plusDays(day), start.plusDays(day + 1)))
+                .writeTo(outputStream);
+
+        assertEquals(outputStream.toString(StandardCharsets.UTF_8),
+                "{\"start\":\"2030-01-02T00:00:00\",\"end\":\"2030-01-03T00:00:00\"}\n" +
+                        "{\"start\":\"2030-01-03T00:00:00\",\"end\":\"2030-01-04T00:00:00\"}\n");
+    }
+
+    @SneakyThrows
+    @Test
+    void export_whenStreamIsLong_thenClearPersistenceContextPeriodically() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exporter.export(() -> IntStream.range(0, NdjsonExporter.ROWS_PER_FLUSH * 2 + 1).boxed(), row -> row)
+                .writeTo(outputStream);
+
+        assertEquals(outputStream.toString(StandardCharsets.UTF_8).lines().count(), NdjsonExporter.ROWS_PER_FLUSH * 2 + 1L);
+        verify(entityManager, times(2)).clear();
+    }
+}
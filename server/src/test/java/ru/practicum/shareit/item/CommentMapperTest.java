@@ -48,6 +48,7 @@ class CommentMapperTest {
         assertEquals(commentDto.getText(), comment.getText());
         assertEquals(comment.getAuthor().getId(), owner.getId());
         assertEquals(comment.itemId(), item.getId());
+        assertEquals(comment.getOwnerId(), item.ownerId());
     }
 
     @Test
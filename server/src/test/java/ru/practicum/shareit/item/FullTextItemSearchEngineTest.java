@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.FullTextItemSearchEngine;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    @InjectMocks
+    FullTextItemSearchEngine searchEngine;
+
+    @Test
+    void toPrefixQuery_whenTextHasSeveralWords_thenReturnLowerCasePrefixTermsJoinedByAnd() {
+        assertEquals(FullTextItemSearchEngine.toPrefixQuery("Дрель  Аккум"), "дрель:* & аккум:*");
+    }
+
+    @Test
+    void toPrefixQuery_whenTextHasQuerySyntax_thenStripIt() {
+        assertEquals(FullTextItemSearchEngine.toPrefixQuery("drill' | !saw:*"), "drill:* & saw:*");
+    }
+
+    @Test
+    void search_whenTextHasNoWords_thenReturnEmptyListWithoutQuery() {
+        List<Item> items = searchEngine.search("!!! ?", PageRequest.of(0, 10));
+
+        assertTrue(items.isEmpty());
+        verify(itemRepository, times(0)).searchFullText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void search_whenTextHasWords_thenSearchByPrefixQuery() {
+        Pageable page = PageRequest.of(0, 10);
+        Item item = Item.builder().name("Дрель").build();
+        when(itemRepository.searchFullText("дрел:*", page)).thenReturn(List.of(item));
+
+        List<Item> items = searchEngine.search("ДРЕЛ", page);
+
+        assertEquals(items, List.of(item));
+    }
+}
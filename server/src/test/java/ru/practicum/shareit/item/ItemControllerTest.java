@@ -8,24 +8,38 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.validator.PageableValidator;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Predicate;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constants.Headers.USER_ID;
 
@@ -63,6 +77,25 @@ class ItemControllerTest {
     }
 
 
+    @SneakyThrows
+    @Test
+    void createItems() {
+        List<ItemDto> itemsToCreate = List.of(ItemDto.builder().name("name").description("desc").available(true).build());
+        BatchResultDto batchResult = BatchResultDto.of(List.of(BatchRowResultDto.created(0, 1L)));
+        when(itemService.createItems(anyList(), anyLong())).thenReturn(batchResult);
+
+        String result = mockMvc.perform(post("/items/batch")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(itemsToCreate)).header(USER_ID, 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(batchResult), result);
+        verify(itemService, times(1)).createItems(itemsToCreate, 1L);
+    }
+
     @SneakyThrows
     @Test
     void updateItem() {
@@ -94,7 +127,52 @@ class ItemControllerTest {
                         .header(USER_ID, 1L))
                 .andExpect(status().isOk());
 
-        verify(itemService, times(1)).getItemById(anyLong(), anyLong());
+        verify(itemService, times(1)).getItemById(anyLong(), anyLong(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenEtagMatches_thenReturnNotModified() {
+        long itemId = 0L;
+        String etag = "\"0123456789abcdef\"";
+        when(itemService.getItemById(anyLong(), anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Predicate<String>>getArgument(2).test(etag) ? null : new ItemDto());
+
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAvailability() {
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00")
+                        .header(USER_ID, 1L))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1)).getItemAvailability(1L, 1L,
+                LocalDateTime.of(2030, 1, 1, 0, 0), LocalDateTime.of(2030, 1, 11, 0, 0));
+    }
+
+    @SneakyThrows
+    @Test
+    void exportUserItems() {
+        when(itemService.exportItemsByUserId(1L))
+                .thenReturn(outputStream -> outputStream.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult mvcResult = mockMvc.perform(get("/items/export").header(USER_ID, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
     }
 
     @SneakyThrows
@@ -107,7 +185,7 @@ class ItemControllerTest {
                 .andExpect(status().isOk());
         doNothing().when(pageableValidator).checkingPageableParams(anyInt(), anyInt());
 
-        verify(itemService, times(1)).getItemsByUserId(anyLong(), any(Pageable.class));
+        verify(itemService, times(1)).getItemsByUserId(anyLong(), any(Pageable.class), any());
 
     }
 
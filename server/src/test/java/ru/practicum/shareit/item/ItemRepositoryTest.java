@@ -16,6 +16,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 @DataJpaTest
@@ -63,15 +65,21 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByOwnerId_whenDataIsCorrect_thenReturnListOfFirstItem() {
+    void findByOwnerIdAndIdGreaterThan_whenDataIsCorrect_thenReturnListOfFirstItem() {
         Pageable page = PageRequest.of(0, 10);
-        List<Item> items = itemRepository.findByOwner_Id(ownerOneId, page);
+        List<Item> items = itemRepository.findByOwner_IdAndIdGreaterThan(ownerOneId, 0L, page);
 
         assertEquals(items.size(), 1);
         assertEquals(items.get(0).getName(), "item1");
     }
 
 
+    @Test
+    void existsByOwnerId_whenOwnerHasItems_thenReturnTrue() {
+        assertTrue(itemRepository.existsByOwner_Id(ownerOneId));
+        assertFalse(itemRepository.existsByOwner_Id(-1L));
+    }
+
     @Test
     void search_whenDataIsDesc_thenReturnTwoItems() {
         Pageable page = PageRequest.of(0, 10);
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void addItems() {
+        searchIndex.onItemSaved(item(1L, "Дрель", "Аккумуляторная дрель", true));
+        searchIndex.onItemSaved(item(2L, "Отвертка", "Простая отвёртка", true));
+        searchIndex.onItemSaved(item(3L, "Дрель ударная", "Сломана", false));
+        searchIndex.onItemSaved(item(4L, "Drill", "Cordless DRILL", true));
+    }
+
+    @Test
+    void search_whenTextInDifferentCase_thenReturnMatchingItems() {
+        assertEquals(ids(searchIndex.search("дРеЛь", PageRequest.of(0, 10))), List.of(1L));
+        assertEquals(ids(searchIndex.search("drill", PageRequest.of(0, 10))), List.of(4L));
+    }
+
+    @Test
+    void search_whenTextIsPrefix_thenReturnMatchingItems() {
+        assertEquals(ids(searchIndex.search("аккум", PageRequest.of(0, 10))), List.of(1L));
+    }
+
+    @Test
+    void search_whenTextHasYo_thenMatchYe() {
+        assertEquals(ids(searchIndex.search("ОТВЕРТК", PageRequest.of(0, 10))), List.of(2L));
+    }
+
+    @Test
+    void search_whenSeveralWords_thenReturnItemsMatchingAllWords() {
+        assertEquals(ids(searchIndex.search("cordless dri", PageRequest.of(0, 10))), List.of(4L));
+        assertTrue(searchIndex.search("cordless дрель", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_whenItemNotAvailable_thenSkipIt() {
+        assertTrue(searchIndex.search("ударная", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void search_whenItemUpdated_thenOldWordsNotFound() {
+        searchIndex.onItemSaved(item(1L, "Перфоратор", "Мощный", true));
+
+        assertTrue(searchIndex.search("аккум", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(ids(searchIndex.search("перфоратор", PageRequest.of(0, 10))), List.of(1L));
+    }
+
+    @Test
+    void search_whenItemsRemoved_thenNotFound() {
+        searchIndex.onItemsRemoved(List.of(1L, 4L));
+
+        assertTrue(searchIndex.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(searchIndex.search("drill", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(ids(searchIndex.search("отвертка", PageRequest.of(0, 10))), List.of(2L));
+    }
+
+    @Test
+    void search_whenPageRequested_thenReturnOnlyPageItems() {
+        searchIndex.onItemSaved(item(5L, "Дрель", "Сетевая", true));
+
+        assertEquals(ids(searchIndex.search("дрель", PageRequest.of(1, 1))), List.of(5L));
+    }
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(User.builder().id(1L).build())
+                .build();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
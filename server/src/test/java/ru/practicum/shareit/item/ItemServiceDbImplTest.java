@@ -8,19 +8,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.batch.BatchResultDto;
+import ru.practicum.shareit.batch.BatchRowResultDto;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryUpdater;
 import ru.practicum.shareit.exception.EmptyFieldException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
+import ru.practicum.shareit.export.NdjsonExporter;
+import ru.practicum.shareit.item.dto.AvailabilityPeriodDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.comment.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceDbImpl;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -34,10 +46,15 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -57,9 +74,21 @@ class ItemServiceDbImplTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
+    ItemSearchEngine itemSearchEngine;
+    @Mock
+    ItemAvailabilityIndex itemAvailabilityIndex;
+    @Mock
+    ItemBookingSummaryRepository itemBookingSummaryRepository;
+    @Mock
+    ItemBookingSummaryUpdater itemBookingSummaryUpdater;
+    @Mock
+    NdjsonExporter ndjsonExporter;
+    @Mock
     UserValidator userValidator;
     @Mock
     ItemValidator itemValidator;
+    @Mock
+    PlatformTransactionManager transactionManager;
 
     @InjectMocks
     ItemServiceDbImpl itemService;
@@ -101,6 +130,44 @@ class ItemServiceDbImplTest {
         assertEquals(expectedItem.getRequest().getId(), actualItem.getRequestId());
     }
 
+    @Test
+    void createItems_whenSomeRowsAreIncorrect_thenSaveOthersAndReturnResultPerRow() {
+        ItemRequest request = ItemRequest.builder()
+                .id(1L)
+                .description("need")
+                .build();
+        ItemDto item = ItemDto.builder().name("name").description("desc").available(true).build();
+        ItemDto itemWithRequest = ItemDto.builder().name("name2").description("desc2").available(true).requestId(1L).build();
+        ItemDto itemWithUnknownRequest = ItemDto.builder().name("name3").description("desc3").available(true).requestId(2L).build();
+        when(userValidator.validateUserIdAndReturnIt(1L)).thenReturn(new User());
+        when(itemRequestRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(request));
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0, ItemDto.class).getName() == null) {
+                throw new EmptyFieldException("Обнаружены пустые поля в элементе itemDto!");
+            }
+            return null;
+        }).when(itemValidator).validateItemData(any(ItemDto.class));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setId(10L + i);
+            }
+            return items;
+        });
+
+        BatchResultDto result = itemService.createItems(List.of(item, new ItemDto(), itemWithRequest, itemWithUnknownRequest), 1L);
+
+        assertEquals(result.getCreated(), 2);
+        assertEquals(result.getFailed(), 2);
+        assertEquals(result.getResults(), List.of(
+                BatchRowResultDto.created(0, 10L),
+                BatchRowResultDto.failed(1, "Обнаружены пустые поля в элементе itemDto!"),
+                BatchRowResultDto.created(2, 11L),
+                BatchRowResultDto.failed(3, "Запроса на вещь с таким ID не обнаружено! ID запроса: 2")));
+        verify(itemSearchEngine, times(2)).onItemSaved(any(Item.class));
+        verify(transactionManager).commit(any());
+    }
+
     @Test
     void create_whenDataIsIncorrect_thenThrowEmptyFieldExceptionException() {
         Item expectedItem = new Item();
@@ -223,14 +290,17 @@ class ItemServiceDbImplTest {
                 .status(BookingStatus.APPROVED)
                 .build());
         expectedItem.setId(itemId);
+        expectedItem.setOwner(booker);
         doNothing().when(userValidator).validateUserId(userId);
         when(itemValidator.validateItemIdAndReturnIt(itemId)).thenReturn(expectedItem);
-        when(bookingRepository.findAllByItem_Owner_Id(userId)).thenReturn(bookings);
+        when(bookingRepository.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(anyLong(), anyList(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(bookings.get(0)));
 
         ItemDto actualItem = itemService.getItemById(itemId, userId);
 
         assertEquals(expectedItem.getId(), actualItem.getId());
         assertEquals(actualItem.getLastBooking().getBookerId(), userId);
+        assertNull(actualItem.getNextBooking());
     }
 
     @Test
@@ -279,9 +349,11 @@ class ItemServiceDbImplTest {
                 .author(booker)
                 .build());
         expectedItem.setId(itemId);
+        expectedItem.setOwner(booker);
         doNothing().when(userValidator).validateUserId(userId);
         when(itemValidator.validateItemIdAndReturnIt(itemId)).thenReturn(expectedItem);
-        when(bookingRepository.findAllByItem_Owner_Id(userId)).thenReturn(bookings);
+        when(bookingRepository.findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(anyLong(), anyList(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(bookings.get(0)));
         when(commentRepository.findAllByItem_Id(itemId)).thenReturn(comments);
 
         ItemDto actualItem = itemService.getItemById(itemId, userId);
@@ -291,14 +363,116 @@ class ItemServiceDbImplTest {
         assertEquals(actualItem.getLastBooking().getBookerId(), userId);
     }
 
+    @Test
+    void getItemById_whenUserIsNotOwner_thenReturnItemWithoutBookings() {
+        long itemId = 1L;
+        long userId = 2L;
+        User owner = new User();
+        owner.setId(1L);
+        Item expectedItem = new Item();
+        expectedItem.setId(itemId);
+        expectedItem.setOwner(owner);
+        doNothing().when(userValidator).validateUserId(userId);
+        when(itemValidator.validateItemIdAndReturnIt(itemId)).thenReturn(expectedItem);
+
+        ItemDto actualItem = itemService.getItemById(itemId, userId);
+
+        assertNull(actualItem.getLastBooking());
+        assertNull(actualItem.getNextBooking());
+        verify(bookingRepository, times(0))
+                .findFirstByItem_IdAndStatusNotInAndStartBeforeOrderByStartDescIdDesc(any(), any(), any());
+        verify(bookingRepository, times(0))
+                .findFirstByItem_IdAndStatusNotInAndStartAfterOrderByStartAscIdAsc(any(), any(), any());
+    }
+
+    @Test
+    void getItemById_whenEtagMatches_thenReturnNull() {
+        long itemId = 1L;
+        long userId = 1L;
+        Item expectedItem = Item.builder().id(itemId).version(0L).build();
+        doNothing().when(userValidator).validateUserId(userId);
+        when(itemValidator.validateItemIdAndReturnIt(itemId)).thenReturn(expectedItem);
+        List<String> etags = new ArrayList<>();
+        itemService.getItemById(itemId, userId, etags::add);
+
+        ItemDto actualItem = itemService.getItemById(itemId, userId, etags.get(0)::equals);
+
+        assertNull(actualItem);
+    }
+
+    @Test
+    void getItemById_whenItemVersionChanged_thenEtagChanges() {
+        long itemId = 1L;
+        long userId = 1L;
+        Item expectedItem = Item.builder().id(itemId).version(0L).build();
+        doNothing().when(userValidator).validateUserId(userId);
+        when(itemValidator.validateItemIdAndReturnIt(itemId)).thenReturn(expectedItem);
+        List<String> etags = new ArrayList<>();
+        itemService.getItemById(itemId, userId, etags::add);
+        expectedItem.setVersion(1L);
+
+        ItemDto actualItem = itemService.getItemById(itemId, userId, etags.get(0)::equals);
+
+        assertEquals(actualItem.getId(), itemId);
+    }
+
+    @Test
+    void getItemAvailability_whenBusyPeriodsInside_thenReturnFreeGapsBetweenThem() {
+        long itemId = 1L;
+        long userId = 2L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<AvailabilityPeriodDto> busy = List.of(
+                new AvailabilityPeriodDto(from.minusDays(1), from.plusDays(2)),
+                new AvailabilityPeriodDto(from.plusDays(4), from.plusDays(5)),
+                new AvailabilityPeriodDto(from.plusDays(4), from.plusDays(6)));
+        doNothing().when(userValidator).validateUserId(userId);
+        doNothing().when(itemValidator).validateItemId(itemId);
+        when(itemAvailabilityIndex.findBusyPeriods(itemId, from, to)).thenReturn(busy);
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemId, userId, from, to);
+
+        assertEquals(availability.getAvailable(), false);
+        assertEquals(availability.getBusy(), busy);
+        assertEquals(availability.getFree(), List.of(
+                new AvailabilityPeriodDto(from.plusDays(2), from.plusDays(4)),
+                new AvailabilityPeriodDto(from.plusDays(6), to)));
+    }
+
+    @Test
+    void getItemAvailability_whenNoBusyPeriods_thenWholePeriodIsFree() {
+        long itemId = 1L;
+        long userId = 2L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        doNothing().when(userValidator).validateUserId(userId);
+        doNothing().when(itemValidator).validateItemId(itemId);
+        when(itemAvailabilityIndex.findBusyPeriods(itemId, from, to)).thenReturn(new ArrayList<>());
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemId, userId, from, to);
+
+        assertEquals(availability.getAvailable(), true);
+        assertEquals(availability.getFree(), List.of(new AvailabilityPeriodDto(from, to)));
+    }
+
+    @Test
+    void getItemAvailability_whenPeriodIsEmpty_thenThrowIncorrectDataException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        IncorrectDataException exception = assertThrows(IncorrectDataException.class,
+                () -> itemService.getItemAvailability(1L, 2L, from, from));
+
+        assertEquals(exception.getMessage(), "Начало периода должно быть раньше его окончания!");
+    }
+
     @Test
     void getItemsByUserId_whenUserExists_thenReturnUserItems() {
         long userId = 1L;
-        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
         doNothing().when(userValidator).validateUserId(userId);
-        when(itemRepository.findByOwner_Id(userId, pageForItems)).thenReturn(List.of(new Item()));
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(new Item()));
 
-        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems);
+        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems, null);
 
         assertEquals(userItems.size(), 1);
     }
@@ -306,11 +480,11 @@ class ItemServiceDbImplTest {
     @Test
     void getItemsByUserId_whenUserNotExists_thenThrowEntityNotFoundException() {
         long userId = 1L;
-        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
         doThrow(new EntityNotFoundException("Пользователь с таким ID не существует! Id : 1")).when(userValidator).validateUserId(userId);
 
         EntityNotFoundException entityNotFoundException = assertThrows(EntityNotFoundException.class,
-                () -> itemService.getItemsByUserId(userId, pageForItems), "Исключения различаются!");
+                () -> itemService.getItemsByUserId(userId, pageForItems, null), "Исключения различаются!");
 
         assertEquals(entityNotFoundException.getMessage(), "Пользователь с таким ID не существует! Id : 1", "Сообщения различаются!");
     }
@@ -320,18 +494,17 @@ class ItemServiceDbImplTest {
         long userId = 1L;
         Item itemToComment = new Item();
         itemToComment.setId(1L);
-        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Pageable pageForComments = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"));
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
         List<Comment> comments = List.of(Comment.builder()
                 .text("Text")
                 .item(itemToComment)
                 .created(LocalDateTime.now())
                 .build());
         doNothing().when(userValidator).validateUserId(userId);
-        when(itemRepository.findByOwner_Id(userId, pageForItems)).thenReturn(List.of(itemToComment));
-        when(commentRepository.findAllItemByUserId(userId, pageForComments)).thenReturn(comments);
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(itemToComment));
+        when(commentRepository.findAllByItem_IdIn(anyList(), any(Sort.class))).thenReturn(comments);
 
-        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems);
+        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems, null);
         List<ItemDto> items = new ArrayList<>(userItems);
 
         assertEquals(userItems.size(), 1);
@@ -344,49 +517,70 @@ class ItemServiceDbImplTest {
         Item itemToBooking = new Item();
         itemToBooking.setId(1L);
         LocalDateTime start = LocalDateTime.now();
-        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        List<Booking> bookings = List.of(Booking.builder()
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setLastBooking(Booking.builder()
                 .item(itemToBooking)
                 .start(start)
                 .end(null)
                 .status(BookingStatus.APPROVED)
                 .build());
         doNothing().when(userValidator).validateUserId(userId);
-        when(itemRepository.findByOwner_Id(userId, pageForItems)).thenReturn(List.of(itemToBooking));
-        when(bookingRepository.findAllByItem_Owner_Id(userId)).thenReturn(bookings);
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(itemToBooking));
+        when(itemBookingSummaryRepository.findAllByItemIdIn(anyList())).thenReturn(List.of(summary));
 
-        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems);
+        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems, null);
         List<ItemDto> items = new ArrayList<>(userItems);
 
         assertEquals(userItems.size(), 1);
         assertEquals(items.get(0).getLastBooking().getStart(), start);
     }
 
+    @Test
+    void getItemsByUserId_whenSummaryHasCounts_thenReturnThemWithoutCounting() {
+        long userId = 1L;
+        Item item = new Item();
+        item.setId(1L);
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setApprovedCount(2L);
+        summary.setWaitingCount(1L);
+        doNothing().when(userValidator).validateUserId(userId);
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(item));
+        when(itemBookingSummaryRepository.findAllByItemIdIn(anyList())).thenReturn(List.of(summary));
+
+        List<ItemDto> items = new ArrayList<>(itemService.getItemsByUserId(userId, pageForItems, null));
+
+        assertEquals(items.get(0).getBookingCounts().get(BookingStatus.APPROVED), 2L);
+        assertEquals(items.get(0).getBookingCounts().get(BookingStatus.WAITING), 1L);
+        verify(bookingRepository, never()).countByItemIdsAndStatus(any());
+    }
+
     @Test
     void getItemsByUserId_whenUserExists_thenReturnUserItemsWithBookingsAndComments() {
         long userId = 1L;
         Item itemToBooking = new Item();
         itemToBooking.setId(1L);
         LocalDateTime start = LocalDateTime.now();
-        Pageable pageForItems = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        List<Booking> bookings = List.of(Booking.builder()
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        ItemBookingSummary summary = new ItemBookingSummary(1L);
+        summary.setLastBooking(Booking.builder()
                 .item(itemToBooking)
                 .start(start)
                 .end(null)
                 .status(BookingStatus.APPROVED)
                 .build());
-        Pageable pageForComments = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "created"));
         List<Comment> comments = List.of(Comment.builder()
                 .text("Text")
                 .item(itemToBooking)
                 .created(LocalDateTime.now())
                 .build());
         doNothing().when(userValidator).validateUserId(userId);
-        when(itemRepository.findByOwner_Id(userId, pageForItems)).thenReturn(List.of(itemToBooking));
-        when(bookingRepository.findAllByItem_Owner_Id(userId)).thenReturn(bookings);
-        when(commentRepository.findAllItemByUserId(userId, pageForComments)).thenReturn(comments);
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(itemToBooking));
+        when(itemBookingSummaryRepository.findAllByItemIdIn(anyList())).thenReturn(List.of(summary));
+        when(commentRepository.findAllByItem_IdIn(anyList(), any(Sort.class))).thenReturn(comments);
 
-        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems);
+        Collection<ItemDto> userItems = itemService.getItemsByUserId(userId, pageForItems, null);
         List<ItemDto> items = new ArrayList<>(userItems);
 
         assertEquals(userItems.size(), 1);
@@ -394,6 +588,33 @@ class ItemServiceDbImplTest {
         assertEquals(items.get(0).getComments().size(), 1);
     }
 
+    @Test
+    void getItemsByUserId_whenSummaryNextBookingAlreadyStarted_thenReadBookingsLikeGetItemById() {
+        long userId = 1L;
+        Item itemToBooking = new Item();
+        itemToBooking.setId(1L);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(1);
+        Pageable pageForItems = OffsetPageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Booking startedBooking = Booking.builder()
+                .item(itemToBooking)
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build();
+        ItemBookingSummary staleSummary = new ItemBookingSummary(1L);
+        staleSummary.setNextBooking(startedBooking);
+        doNothing().when(userValidator).validateUserId(userId);
+        when(itemRepository.findByOwner_IdAndIdGreaterThan(userId, 0L, pageForItems)).thenReturn(List.of(itemToBooking));
+        when(itemBookingSummaryRepository.findAllByItemIdIn(anyList())).thenReturn(List.of(staleSummary));
+        when(bookingRepository.findLastBookingsByItemIds(anyList(), anyList(), any(LocalDateTime.class)))
+                .thenReturn(List.of(startedBooking));
+
+        List<ItemDto> items = new ArrayList<>(itemService.getItemsByUserId(userId, pageForItems, null));
+
+        assertEquals(items.get(0).getLastBooking().getStart(), start);
+        assertNull(items.get(0).getNextBooking());
+    }
+
     @Test
     void getItemsBySearch_whenItemsAvailableTrue_thenReturnItems() {
         Item item = Item.builder()
@@ -403,7 +624,7 @@ class ItemServiceDbImplTest {
                 .build();
         Pageable page = PageRequest.of(0, 10);
         String search = "DesC";
-        when(itemRepository.search("DesC", page)).thenReturn(List.of(item));
+        when(itemSearchEngine.search("DesC", page)).thenReturn(List.of(item));
 
         Collection<ItemDto> items = itemService.getItemsBySearching(search, page);
         List<ItemDto> itemsList = new ArrayList<>(items);
@@ -416,7 +637,7 @@ class ItemServiceDbImplTest {
     void getItemsBySearch_whenItemsAvailableFalse_thenReturnEmptyList() {
         Pageable page = PageRequest.of(0, 10);
         String search = "DesC";
-        when(itemRepository.search("DesC", page)).thenReturn(new ArrayList<>());
+        when(itemSearchEngine.search("DesC", page)).thenReturn(new ArrayList<>());
 
         Collection<ItemDto> items = itemService.getItemsBySearching(search, page);
         List<ItemDto> itemsList = new ArrayList<>(items);
@@ -436,8 +657,6 @@ class ItemServiceDbImplTest {
                 .status(BookingStatus.APPROVED)
                 .build());
         Comment expectedComment = Comment.builder().id(1L).text("text").build();
-        doNothing().when(userValidator).validateUserId(userId);
-        doNothing().when(itemValidator).validateItemId(itemId);
         when(bookingRepository.findAllByUserIdAndItemIdAndEndDateIsPassed(any(Long.class), any(Long.class), any(LocalDateTime.class)))
                 .thenReturn(bookings);
         when(commentRepository.save(any(Comment.class))).thenReturn(expectedComment);
@@ -480,7 +699,7 @@ class ItemServiceDbImplTest {
         long userId = 1L;
         long itemId = 1L;
         Comment expectedComment = Comment.builder().build();
-        doThrow(new EntityNotFoundException("Пользователь с таким ID не существует! Id : 1")).when(itemValidator).validateItemId(itemId);
+        when(itemValidator.validateItemIdAndReturnIt(itemId)).thenThrow(new EntityNotFoundException("Пользователь с таким ID не существует! Id : 1"));
 
         EntityNotFoundException entityNotFoundException = assertThrows(EntityNotFoundException.class,
                 () -> itemService.addCommentToItem(userId, itemId, toCommentDto(expectedComment)));
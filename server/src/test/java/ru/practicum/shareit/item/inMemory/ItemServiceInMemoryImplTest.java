@@ -91,7 +91,7 @@ class ItemServiceInMemoryImplTest {
         when(itemRepositoryInMemory.getItemsByUserId(anyLong())).thenReturn(List.of(expectedItem));
 
         List<ItemDto> actualList = new ArrayList<>(itemServiceInMemory
-                .getItemsByUserId(1L, PageRequest.of(1, 10)));
+                .getItemsByUserId(1L, PageRequest.of(1, 10), null));
 
         assertEquals(actualList.size(), 1);
     }
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.IncorrectDataException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void decode_whenCursorWithStartEncoded_thenReturnSameCursor() {
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2023, 3, 1, 12, 30, 15), 42L);
+
+        assertEquals(PageCursor.decode(cursor.encode()), cursor);
+    }
+
+    @Test
+    void of_whenStartHasNanoseconds_thenTruncateToMicroseconds() {
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123_456_789), 42L);
+
+        assertEquals(cursor.getStart(), LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123_456_000));
+        assertEquals(PageCursor.decode(cursor.encode()), cursor);
+    }
+
+    @Test
+    void decode_whenCursorWithIdEncoded_thenReturnSameCursor() {
+        PageCursor cursor = PageCursor.ofId(7L);
+
+        assertEquals(PageCursor.decode(cursor.encode()), cursor);
+    }
+
+    @Test
+    void decode_whenCursorIsNull_thenReturnNull() {
+        assertNull(PageCursor.decode(null));
+    }
+
+    @Test
+    void decode_whenCursorIsIncorrect_thenThrowIncorrectDataException() {
+        assertThrows(IncorrectDataException.class, () -> PageCursor.decode("not a cursor"));
+    }
+
+    @Test
+    void startOrMaxAndIdOrMax_whenCursorIsNull_thenReturnSentinels() {
+        assertEquals(PageCursor.startOrMax(null), PageCursor.MAX_START);
+        assertEquals(PageCursor.idOrMax(null), Long.MAX_VALUE);
+        assertEquals(PageCursor.idOrMin(null), 0L);
+    }
+
+    @Test
+    void offsetPageRequest_whenFromNotMultipleOfSize_thenKeepExactOffset() {
+        assertEquals(OffsetPageRequest.of(3, 2).getOffset(), 3L);
+    }
+}
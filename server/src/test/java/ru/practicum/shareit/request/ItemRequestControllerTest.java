@@ -81,7 +81,7 @@ class ItemRequestControllerTest {
                         .header(USER_ID, 1L))
                 .andExpect(status().isOk());
 
-        verify(itemRequestService, times(1)).getAllRequestsToResponse(anyLong(), any(Pageable.class));
+        verify(itemRequestService, times(1)).getAllRequestsToResponse(anyLong(), any(Pageable.class), any());
     }
 
     @SneakyThrows
@@ -92,6 +92,6 @@ class ItemRequestControllerTest {
                         .header(USER_ID, 1L))
                 .andExpect(status().isOk());
 
-        verify(itemRequestService, times(1)).getRequestById(anyLong(), anyLong());
+        verify(itemRequestService, times(1)).getRequestById(anyLong(), anyLong(), any());
     }
 }
\ No newline at end of file
@@ -70,7 +70,7 @@ class ItemRequestRepositoryTest {
     @Test
     void findAllByAllOtherUsers_whenUserIdIsUserOneId_thenReturnListOfUserTwoRequest() {
         Pageable page = PageRequest.of(0, 10);
-        List<ItemRequest> requestList = new ArrayList<>(itemRequestRepository.findAllByAllOtherUsers(userOneId, page));
+        List<ItemRequest> requestList = new ArrayList<>(itemRequestRepository.findAllByAllOtherUsers(userOneId, Long.MAX_VALUE, page));
 
         assertEquals(requestList.size(), 1);
         assertEquals(requestList.get(0).getRequester().getName(), "name2");
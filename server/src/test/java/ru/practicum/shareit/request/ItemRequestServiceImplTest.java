@@ -10,6 +10,7 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -24,10 +25,12 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +42,9 @@ class ItemRequestServiceImplTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    ItemRepository itemRepository;
+
     @Mock
     UserValidator userValidator;
 
@@ -99,12 +105,41 @@ class ItemRequestServiceImplTest {
     void getAllUserRequestsWithResponses_whenUserExists_thenReturnListOfResponses() {
         doNothing().when(userValidator).validateUserId(anyLong());
         when(itemRequestRepository.findAllByRequester_Id(anyLong())).thenReturn(List.of(new ItemRequest()));
+        when(itemRepository.findAllByRequest_IdIn(anyList())).thenReturn(List.of());
 
         List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllUserRequestsWithResponses(1L));
 
         assertEquals(requests.size(), 1);
     }
 
+    @Test
+    void getAllUserRequestsWithResponses_whenRequestsHaveResponses_thenGroupResponsesByRequestId() {
+        ItemRequest firstRequest = ItemRequest.builder().id(1L).description("first").build();
+        ItemRequest secondRequest = ItemRequest.builder().id(2L).description("second").build();
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(itemRequestRepository.findAllByRequester_Id(anyLong())).thenReturn(List.of(firstRequest, secondRequest));
+        when(itemRepository.findAllByRequest_IdIn(List.of(1L, 2L))).thenReturn(List.of(
+                Item.builder().id(1L).name("item1").owner(new User()).request(firstRequest).build(),
+                Item.builder().id(2L).name("item2").owner(new User()).request(firstRequest).build()));
+
+        List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllUserRequestsWithResponses(1L));
+
+        assertEquals(requests.get(0).getItems().size(), 2);
+        assertEquals(requests.get(1).getItems().size(), 0);
+        verify(itemRepository, times(1)).findAllByRequest_IdIn(anyList());
+    }
+
+    @Test
+    void getAllUserRequestsWithResponses_whenUserHasNoRequests_thenNotLoadResponses() {
+        doNothing().when(userValidator).validateUserId(anyLong());
+        when(itemRequestRepository.findAllByRequester_Id(anyLong())).thenReturn(List.of());
+
+        List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllUserRequestsWithResponses(1L));
+
+        assertEquals(requests.size(), 0);
+        verify(itemRepository, never()).findAllByRequest_IdIn(anyList());
+    }
+
     @Test
     void getAllUserRequestsWithResponses_whenUserNotExists_thenThrowEntityNotFoundException() {
         doThrow(new EntityNotFoundException("Пользователь с таким ID не существует! Id : 1"))
@@ -119,9 +154,10 @@ class ItemRequestServiceImplTest {
     @Test
     void getAllRequestsToResponse_whenUserExists_thenReturnListOfRequests() {
         doNothing().when(userValidator).validateUserId(anyLong());
-        when(itemRequestRepository.findAllByAllOtherUsers(anyLong(), any(Pageable.class))).thenReturn(List.of(new ItemRequest()));
+        when(itemRequestRepository.findAllByAllOtherUsers(anyLong(), anyLong(), any(Pageable.class))).thenReturn(List.of(new ItemRequest()));
+        when(itemRepository.findAllByRequest_IdIn(anyList())).thenReturn(List.of());
 
-        List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllRequestsToResponse(1L, PageRequest.of(0, 10)));
+        List<ItemRequestDto> requests = new ArrayList<>(requestService.getAllRequestsToResponse(1L, PageRequest.of(0, 10), null));
 
         assertEquals(requests.size(), 1);
     }
@@ -132,7 +168,7 @@ class ItemRequestServiceImplTest {
                 .when(userValidator).validateUserId(anyLong());
 
         EntityNotFoundException entityNotFoundException = assertThrows(EntityNotFoundException.class,
-                () -> requestService.getAllRequestsToResponse(1L, PageRequest.of(0, 10)));
+                () -> requestService.getAllRequestsToResponse(1L, PageRequest.of(0, 10), null));
 
         assertEquals(entityNotFoundException.getMessage(), "Пользователь с таким ID не существует! Id : 1");
     }
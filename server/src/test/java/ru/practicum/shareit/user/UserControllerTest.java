@@ -12,6 +12,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,7 +52,7 @@ public class UserControllerTest {
         mockMvc.perform(get("/users/{userId}", userId))
                 .andExpect(status().isOk());
 
-        verify(userService, times(1)).getUserById(userId);
+        verify(userService, times(1)).getUserById(eq(userId), any());
     }
 
     @SneakyThrows
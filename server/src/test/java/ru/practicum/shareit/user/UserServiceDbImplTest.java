@@ -2,11 +2,20 @@ package ru.practicum.shareit.user;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.booking.availability.BookingPeriodView;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.EmptyFieldException;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -15,12 +24,17 @@ import ru.practicum.shareit.validator.UserValidator;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.constants.CacheNames.ITEM_EXISTS;
 import static ru.practicum.shareit.user.dto.mapper.UserMapper.toUserDto;
 
 
@@ -30,9 +44,24 @@ class UserServiceDbImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    ItemRepository itemRepository;
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    @Mock
+    ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    ItemAvailabilityIndex itemAvailabilityIndex;
+
     @Mock
     UserValidator userValidator;
 
+    @Mock
+    CacheManager cacheManager;
+
     @InjectMocks
     UserServiceDbImpl userService;
 
@@ -134,6 +163,54 @@ class UserServiceDbImplTest {
                 .deleteById(0L);
     }
 
+    @Test
+    void delete_whenUserHasItems_thenRemoveThemFromSearchEngine() {
+        long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        when(userValidator.validateUserIdAndReturnIt(userId)).thenReturn(user);
+        when(itemRepository.findIdsByOwnerId(userId)).thenReturn(List.of(10L, 11L));
+
+        userService.removeUser(userId);
+
+        InOrder inOrder = inOrder(userRepository, itemSearchEngine);
+        inOrder.verify(userRepository).deleteById(userId);
+        inOrder.verify(itemSearchEngine).onItemsRemoved(List.of(10L, 11L));
+    }
+
+    @Test
+    void delete_whenUserHasItems_thenEvictOnlyTheirExistence() {
+        long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        Cache itemExistsCache = mock(Cache.class);
+        when(userValidator.validateUserIdAndReturnIt(userId)).thenReturn(user);
+        when(itemRepository.findIdsByOwnerId(userId)).thenReturn(List.of(10L, 11L));
+        when(cacheManager.getCache(ITEM_EXISTS)).thenReturn(itemExistsCache);
+
+        userService.removeUser(userId);
+
+        verify(itemExistsCache).evict(10L);
+        verify(itemExistsCache).evict(11L);
+        verify(itemExistsCache, never()).clear();
+    }
+
+    @Test
+    void delete_whenUserHasApprovedBookings_thenRemoveThemFromAvailabilityIndex() {
+        long userId = 1L;
+        User user = new User();
+        user.setId(userId);
+        List<BookingPeriodView> approvedBookings = List.of(mock(BookingPeriodView.class));
+        when(userValidator.validateUserIdAndReturnIt(userId)).thenReturn(user);
+        when(bookingRepository.findAllPeriodsByUserIdAndStatus(userId, BookingStatus.APPROVED)).thenReturn(approvedBookings);
+
+        userService.removeUser(userId);
+
+        InOrder inOrder = inOrder(userRepository, itemAvailabilityIndex);
+        inOrder.verify(userRepository).deleteById(userId);
+        inOrder.verify(itemAvailabilityIndex).onBookingsRemoved(approvedBookings);
+    }
+
     @Test
     void delete_whenUserNotExists_thenThrowEntityNotFoundException() {
         long userId = 0L;
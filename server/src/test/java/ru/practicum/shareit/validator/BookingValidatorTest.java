@@ -6,6 +6,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectDataException;
@@ -35,6 +36,13 @@ public class BookingValidatorTest {
         assertEquals(exception.getMessage(), "NOT");
     }
 
+    @Test
+    void validateBookingState_whenStateIsCorrect_thenReturnState() {
+        BookingState actual = bookingValidator.validateBookingState("PAST");
+
+        assertEquals(actual, BookingState.PAST);
+    }
+
     @Test
     void validateBookingId_whenBookingNotExists_thenThrowEntityNotFoundException() {
         when(bookingRepository.findById(anyLong())).thenThrow(new EntityNotFoundException("Бронирование не найдено!"));
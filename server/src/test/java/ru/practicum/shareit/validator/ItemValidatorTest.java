@@ -13,11 +13,11 @@ import ru.practicum.shareit.item.dto.comment.CommentDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 
-import java.util.Optional;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,12 +32,21 @@ class ItemValidatorTest {
 
     @Test
     void validateItemId_whenItemNotExists_thenThrowEntityNotFoundException() {
-        when(repository.findById(anyLong())).thenThrow(new EntityNotFoundException("Вещь не найдена!"));
+        when(repository.existsById(anyLong())).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> itemValidator.validateItemId(1L));
 
-        assertEquals(exception.getMessage(), "Вещь не найдена!");
+        assertEquals(exception.getMessage(), "Вещи с id 1 не существует!");
+    }
+
+    @Test
+    void validateItemId_whenItemExists_thenNotLoadItem() {
+        when(repository.existsById(anyLong())).thenReturn(true);
+
+        itemValidator.validateItemId(1L);
+
+        verify(repository, never()).findById(anyLong());
     }
 
     @Test
@@ -49,23 +58,25 @@ class ItemValidatorTest {
     }
 
     @Test
-    void validateItemIdAndReturns_whenItemExists_thenReturnItem() {
+    void validateItemIdAndReturns_whenItemExists_thenReturnReferenceWithoutLoading() {
         Item item = new Item();
-        when(repository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(repository.existsById(anyLong())).thenReturn(true);
+        when(repository.getReferenceById(anyLong())).thenReturn(item);
 
         Item actual = itemValidator.validateItemIdAndReturnIt(1L);
 
         assertEquals(actual, item);
+        verify(repository, never()).findById(anyLong());
     }
 
     @Test
     void validateItemIdAndReturns_whenItemNotExists_thenThrowEntityNotFoundException() {
-        when(repository.findById(anyLong())).thenThrow(new EntityNotFoundException("Вещь не найдена!"));
+        when(repository.existsById(anyLong())).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> itemValidator.validateItemIdAndReturnIt(1L));
 
-        assertEquals(exception.getMessage(), "Вещь не найдена!");
+        assertEquals(exception.getMessage(), "Вещи с id 1 не существует!");
     }
 
     @Test
@@ -12,11 +12,11 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Optional;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,12 +30,21 @@ class UserValidatorTest {
 
     @Test
     void validateUserId_whenUserNotExists_thenThrowEntityNotFoundException() {
-        when(userRepository.findById(anyLong())).thenThrow(new EntityNotFoundException("Пользователь не найден!"));
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> userValidator.validateUserId(1L));
 
-        assertEquals(exception.getMessage(), "Пользователь не найден!");
+        assertEquals(exception.getMessage(), "Пользователя с id 1 не существует!");
+    }
+
+    @Test
+    void validateUserId_whenUserExists_thenNotLoadUser() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        userValidator.validateUserId(1L);
+
+        verify(userRepository, never()).findById(anyLong());
     }
 
 
@@ -48,23 +57,25 @@ class UserValidatorTest {
     }
 
     @Test
-    void validateUserIdAndReturns_whenUserExists_thenReturnUser() {
+    void validateUserIdAndReturns_whenUserExists_thenReturnReferenceWithoutLoading() {
         User user = new User();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.getReferenceById(anyLong())).thenReturn(user);
 
         User actual = userValidator.validateUserIdAndReturnIt(1L);
 
         assertEquals(actual, user);
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
     void validateUserIdAndReturns_whenUserNotExists_thenThrowEntityNotFoundException() {
-        when(userRepository.findById(anyLong())).thenThrow(new EntityNotFoundException("Пользователь не найден!"));
+        when(userRepository.existsById(anyLong())).thenReturn(false);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> userValidator.validateUserIdAndReturnIt(1L));
 
-        assertEquals(exception.getMessage(), "Пользователь не найден!");
+        assertEquals(exception.getMessage(), "Пользователя с id 1 не существует!");
     }
 
     @Test